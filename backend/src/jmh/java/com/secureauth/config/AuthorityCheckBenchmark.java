@@ -0,0 +1,97 @@
+package com.secureauth.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vérification @PreAuthorize : test de bit (PermissionRegistry) contre comparaison de chaînes
+ * Chaque invocation crée une nouvelle racine d'expression, comme Spring Security pour chaque appel de méthode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorityCheckBenchmark {
+
+    // Nombre d'autorités portées par le principal
+    @Param({"8", "64"})
+    public int authorityCount;
+
+    private PermissionRegistry registry;
+    private List<GrantedAuthority> authorities;
+    private Authentication stringAuthentication;
+    private Authentication bitsAuthentication;
+    private String lastAuthority;
+
+    @Setup
+    public void setUp() {
+        registry = new PermissionRegistry();
+        authorities = new ArrayList<>();
+        for (int i = 0; i < authorityCount; i++) {
+            String name = i == 0 ? "ROLE_USER" : "PERMISSION_" + i;
+            authorities.add(new SimpleGrantedAuthority(name));
+            registry.register(name);
+        }
+        lastAuthority = "PERMISSION_" + (authorityCount - 1);
+
+        stringAuthentication = new AuthorityBitsAuthenticationToken("alice", authorities, null);
+        bitsAuthentication = new AuthorityBitsAuthenticationToken("alice", authorities, registry.toBits(authorities));
+    }
+
+    @Benchmark
+    public boolean stringHasAuthority() {
+        return new SecurityExpressionRoot(stringAuthentication) { }.hasAuthority(lastAuthority);
+    }
+
+    @Benchmark
+    public boolean bitsetHasAuthority() {
+        return bitsetRoot().hasAuthority(lastAuthority);
+    }
+
+    @Benchmark
+    public boolean stringHasAnyRoleMiss() {
+        return new SecurityExpressionRoot(stringAuthentication) { }.hasAnyRole("ADMIN", "SECURITY_OFFICER");
+    }
+
+    @Benchmark
+    public boolean bitsetHasAnyRoleMiss() {
+        return bitsetRoot().hasAnyRole("ADMIN", "SECURITY_OFFICER");
+    }
+
+    /**
+     * Scan linéaire de la collection, sans l'ensemble intermédiaire construit par SecurityExpressionRoot
+     */
+    @Benchmark
+    public boolean stringScan() {
+        for (GrantedAuthority authority : authorities) {
+            if (lastAuthority.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private BitsetMethodSecurityExpressionRoot bitsetRoot() {
+        SecurityExpressionRoot delegate = new SecurityExpressionRoot(bitsAuthentication) { };
+        return new BitsetMethodSecurityExpressionRoot(delegate, registry);
+    }
+}
@@ -0,0 +1,136 @@
+package com.secureauth.services;
+
+import com.secureauth.dto.AuditExportRequest;
+import com.secureauth.entities.AuditLog;
+import com.secureauth.repositories.AuditLogRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Export d'audit par format : lignes/s (compteur rows) et octets/ligne (bytes / rows)
+ * Le service réel écrit dans un flux qui ne fait que compter ; la base est remplacée par une liste en mémoire
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AuditExportBenchmark {
+
+    private static final int ROWS = 50_000;
+    private static final String[] ACTIONS = {
+            AuditLog.Action.LOGIN_SUCCESS, AuditLog.Action.LOGIN_FAILED, AuditLog.Action.LOGOUT,
+            AuditLog.Action.PASSWORD_CHANGED, AuditLog.Action.USER_UPDATED, AuditLog.Action.ROLE_ASSIGNED
+    };
+
+    @Param({"CSV", "JSON", "NDJSON_GZIP", "COLUMNAR"})
+    public String format;
+
+    private AuditService auditService;
+    private AuditExportRequest request;
+
+    /**
+     * Compteurs rapportés par JMH : rows et bytes par seconde, leur rapport donne les octets par ligne
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long rows;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        List<AuditLog> logs = generate();
+
+        AuditLogRepository repository = mock(AuditLogRepository.class, withSettings().stubOnly());
+        when(repository.streamForExport(any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> logs.stream());
+        auditService = new AuditService(repository,
+                mock(AuditLogWriter.class, withSettings().stubOnly()),
+                mock(EntityManager.class, withSettings().stubOnly()));
+
+        request = AuditExportRequest.builder()
+                .startDate(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .endDate(LocalDateTime.of(2025, 1, 1, 0, 0))
+                .format(format)
+                .build();
+    }
+
+    @Benchmark
+    public void export(Counters counters) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        auditService.exportAuditReport(request, out);
+        counters.rows += ROWS;
+        counters.bytes += out.count;
+    }
+
+    /**
+     * Journal réaliste : quelques centaines d'utilisateurs et d'IP, événements rapprochés dans le temps
+     */
+    private static List<AuditLog> generate() {
+        Random random = new Random(42);
+        LocalDateTime timestamp = LocalDateTime.of(2024, 6, 1, 0, 0);
+        List<AuditLog> logs = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            timestamp = timestamp.plusNanos(random.nextInt(2_000) * 1_000_000L);
+            String action = ACTIONS[random.nextInt(ACTIONS.length)];
+            logs.add(AuditLog.builder()
+                    .id((long) i + 1)
+                    .username("user" + random.nextInt(500))
+                    .action(action)
+                    .details(action + " via web console")
+                    .ipAddress("10.0." + random.nextInt(8) + "." + random.nextInt(250))
+                    .success(random.nextInt(10) != 0)
+                    .timestamp(timestamp)
+                    .build());
+        }
+        return logs;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
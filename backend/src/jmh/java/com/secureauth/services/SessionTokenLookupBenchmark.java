@@ -0,0 +1,173 @@
+package com.secureauth.services;
+
+import com.secureauth.utils.TokenHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence d'une recherche de session par token sur une table de {@code rows} lignes (10M par défaut)
+ * - hash : empreinte SHA-256 en bytea sous index unique (schéma actuel, migration_session_token_hash.sql)
+ * - varchar : UUID en clair sous index unique (ancien schéma, avec l'index qui manquait)
+ *
+ * Nécessite une base PostgreSQL dédiée (tables bench_sessions_*, créées puis réutilisées), désignée par
+ * les variables d'environnement BENCH_JDBC_URL, BENCH_JDBC_USER et BENCH_JDBC_PASSWORD (héritées par le fork JMH)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class SessionTokenLookupBenchmark {
+
+    private static final int SAMPLE_SIZE = 10_000;
+
+    @Param({"10000000"})
+    public long rows;
+
+    private Connection connection;
+    private PreparedStatement byHash;
+    private PreparedStatement byToken;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("BENCH_JDBC_URL", "jdbc:postgresql://localhost:5432/secureauth_bench"),
+                env("BENCH_JDBC_USER", "postgres"),
+                env("BENCH_JDBC_PASSWORD", "postgres"));
+        populate();
+        tokens = sampleTokens();
+        reportSizes();
+
+        byHash = connection.prepareStatement(
+                "SELECT id, user_id, last_activity FROM bench_sessions_hash WHERE session_token_hash = ? AND active = true");
+        byToken = connection.prepareStatement(
+                "SELECT id, user_id, last_activity FROM bench_sessions_varchar WHERE session_token = ? AND active = true");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long lookupByHash() throws SQLException {
+        byHash.setBytes(1, TokenHasher.sha256(randomToken()));
+        return single(byHash);
+    }
+
+    @Benchmark
+    public long lookupByToken() throws SQLException {
+        byToken.setString(1, randomToken());
+        return single(byToken);
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isEmpty() ? value : defaultValue;
+    }
+
+    private String randomToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+    }
+
+    private static long single(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+
+    /**
+     * Crée les deux tables avec les mêmes tokens (UUID déterministes), sauf si elles ont déjà la bonne taille
+     * Les index sont construits après le chargement
+     */
+    private void populate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (rowCount(statement, "bench_sessions_varchar") == rows && rowCount(statement, "bench_sessions_hash") == rows) {
+                return;
+            }
+            System.out.println("Populating " + rows + " session rows...");
+            statement.execute("DROP TABLE IF EXISTS bench_sessions_varchar, bench_sessions_hash");
+            statement.execute("CREATE TABLE bench_sessions_varchar (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, "
+                    + "session_token VARCHAR(255) NOT NULL, active BOOLEAN NOT NULL, last_activity TIMESTAMP NOT NULL)");
+            statement.execute("CREATE TABLE bench_sessions_hash (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, "
+                    + "session_token_hash BYTEA NOT NULL CHECK (octet_length(session_token_hash) = 32), "
+                    + "active BOOLEAN NOT NULL, last_activity TIMESTAMP NOT NULL)");
+            statement.execute("INSERT INTO bench_sessions_varchar "
+                    + "SELECT g, g % 100000, md5(g::text)::uuid::text, true, now() "
+                    + "FROM generate_series(1, " + rows + ") g");
+            statement.execute("INSERT INTO bench_sessions_hash "
+                    + "SELECT id, user_id, sha256(convert_to(session_token, 'UTF8')), active, last_activity "
+                    + "FROM bench_sessions_varchar");
+            statement.execute("CREATE UNIQUE INDEX ux_bench_sessions_varchar_token ON bench_sessions_varchar (session_token)");
+            statement.execute("CREATE UNIQUE INDEX ux_bench_sessions_hash_token ON bench_sessions_hash (session_token_hash)");
+            statement.execute("ANALYZE bench_sessions_varchar");
+            statement.execute("ANALYZE bench_sessions_hash");
+        }
+    }
+
+    private static long rowCount(Statement statement, String table) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT to_regclass('" + table + "') IS NOT NULL")) {
+            rs.next();
+            if (!rs.getBoolean(1)) {
+                return -1;
+            }
+        }
+        try (ResultSet rs = statement.executeQuery("SELECT count(*) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Tokens existants répartis sur toute la table (recherches hors cache de page autant que possible)
+     */
+    private String[] sampleTokens() throws SQLException {
+        List<String> sample = new ArrayList<>(SAMPLE_SIZE);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT md5(g::text)::uuid::text FROM (SELECT (random() * (? - 1))::bigint + 1 AS g "
+                        + "FROM generate_series(1, ?)) s")) {
+            statement.setLong(1, rows);
+            statement.setInt(2, SAMPLE_SIZE);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    sample.add(rs.getString(1));
+                }
+            }
+        }
+        return sample.toArray(new String[0]);
+    }
+
+    private void reportSizes() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT relname, pg_size_pretty(pg_relation_size(oid)) FROM pg_class "
+                             + "WHERE relname LIKE 'ux_bench_sessions_%' ORDER BY relname")) {
+            while (rs.next()) {
+                System.out.println("Index " + rs.getString(1) + ": " + rs.getString(2));
+            }
+        }
+    }
+}
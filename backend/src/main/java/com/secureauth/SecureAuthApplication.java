@@ -3,6 +3,7 @@ package com.secureauth;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.admin.SpringApplicationAdminJmxAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * SecureAuth+ Application Main Class
@@ -13,6 +14,7 @@ import org.springframework.boot.autoconfigure.admin.SpringApplicationAdminJmxAut
                 SpringApplicationAdminJmxAutoConfiguration.class
         }
 )
+@EnableScheduling
 public class SecureAuthApplication {
 
     public static void main(String[] args) {
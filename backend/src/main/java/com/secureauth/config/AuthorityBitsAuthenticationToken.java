@@ -0,0 +1,26 @@
+package com.secureauth.config;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Authentication portant le bitset des autorités du principal
+ * Calculé une fois par requête dans le filtre, puis réutilisé par chaque @PreAuthorize
+ */
+public class AuthorityBitsAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private final transient long[] authorityBits;
+
+    public AuthorityBitsAuthenticationToken(Object principal,
+                                            Collection<? extends GrantedAuthority> authorities,
+                                            long[] authorityBits) {
+        super(principal, null, authorities);
+        this.authorityBits = authorityBits;
+    }
+
+    public long[] getAuthorityBits() {
+        return authorityBits;
+    }
+}
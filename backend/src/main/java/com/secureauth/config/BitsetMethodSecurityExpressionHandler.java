@@ -0,0 +1,52 @@
+package com.secureauth.config;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+/**
+ * Handler des expressions de sécurité de méthode basé sur le PermissionRegistry
+ * Remplace le parcours de la collection d'autorités par un test de bit
+ */
+public class BitsetMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    private final PermissionRegistry registry;
+
+    public BitsetMethodSecurityExpressionHandler(PermissionRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public EvaluationContext createEvaluationContext(Supplier<Authentication> authentication, MethodInvocation mi) {
+        EvaluationContext context = super.createEvaluationContext(authentication, mi);
+        if (context instanceof StandardEvaluationContext standardContext) {
+            standardContext.setRootObject(createRoot(authentication, mi));
+        }
+        return context;
+    }
+
+    @Override
+    protected MethodSecurityExpressionOperations createSecurityExpressionRoot(
+            Authentication authentication, MethodInvocation invocation) {
+        return createRoot(() -> authentication, invocation);
+    }
+
+    private BitsetMethodSecurityExpressionRoot createRoot(Supplier<Authentication> authentication,
+                                                          MethodInvocation invocation) {
+        SecurityExpressionRoot delegate = new SecurityExpressionRoot(authentication) { };
+        delegate.setTrustResolver(getTrustResolver());
+        delegate.setPermissionEvaluator(getPermissionEvaluator());
+        delegate.setRoleHierarchy(getRoleHierarchy());
+        delegate.setDefaultRolePrefix(getDefaultRolePrefix());
+
+        BitsetMethodSecurityExpressionRoot root = new BitsetMethodSecurityExpressionRoot(delegate, registry);
+        root.setThis(invocation.getThis());
+        return root;
+    }
+}
@@ -0,0 +1,159 @@
+package com.secureauth.config;
+
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Racine des expressions @PreAuthorize évaluant hasRole/hasAuthority par test de bit
+ * Les autres expressions sont déléguées à l'implémentation standard de Spring Security
+ */
+public class BitsetMethodSecurityExpressionRoot implements MethodSecurityExpressionOperations {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final SecurityExpressionRoot delegate;
+    private final PermissionRegistry registry;
+    private long[] bits;
+
+    private Object filterObject;
+    private Object returnObject;
+    private Object target;
+
+    public BitsetMethodSecurityExpressionRoot(SecurityExpressionRoot delegate, PermissionRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public Authentication getAuthentication() {
+        return delegate.getAuthentication();
+    }
+
+    @Override
+    public boolean hasAuthority(String authority) {
+        return registry.hasAuthority(bits(), authority);
+    }
+
+    @Override
+    public boolean hasAnyAuthority(String... authorities) {
+        long[] bits = bits();
+        for (String authority : authorities) {
+            if (registry.hasAuthority(bits, authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasRole(String role) {
+        return hasAuthority(withRolePrefix(role));
+    }
+
+    @Override
+    public boolean hasAnyRole(String... roles) {
+        long[] bits = bits();
+        for (String role : roles) {
+            if (registry.hasAuthority(bits, withRolePrefix(role))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean permitAll() {
+        return true;
+    }
+
+    @Override
+    public boolean denyAll() {
+        return false;
+    }
+
+    @Override
+    public boolean isAnonymous() {
+        return delegate.isAnonymous();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return delegate.isAuthenticated();
+    }
+
+    @Override
+    public boolean isRememberMe() {
+        return delegate.isRememberMe();
+    }
+
+    @Override
+    public boolean isFullyAuthenticated() {
+        return delegate.isFullyAuthenticated();
+    }
+
+    @Override
+    public boolean hasPermission(Object target, Object permission) {
+        return delegate.hasPermission(target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Object targetId, String targetType, Object permission) {
+        return delegate.hasPermission(targetId, targetType, permission);
+    }
+
+    public Object getPrincipal() {
+        return delegate.getPrincipal();
+    }
+
+    @Override
+    public void setFilterObject(Object filterObject) {
+        this.filterObject = filterObject;
+    }
+
+    @Override
+    public Object getFilterObject() {
+        return filterObject;
+    }
+
+    @Override
+    public void setReturnObject(Object returnObject) {
+        this.returnObject = returnObject;
+    }
+
+    @Override
+    public Object getReturnObject() {
+        return returnObject;
+    }
+
+    void setThis(Object target) {
+        this.target = target;
+    }
+
+    @Override
+    public Object getThis() {
+        return target;
+    }
+
+    /**
+     * Bitset du principal : repris du token si le filtre l'a calculé, sinon calculé une fois ici
+     */
+    private long[] bits() {
+        if (bits == null) {
+            Authentication authentication = getAuthentication();
+            if (authentication instanceof AuthorityBitsAuthenticationToken token
+                    && token.getAuthorityBits() != null) {
+                bits = token.getAuthorityBits();
+            } else if (authentication != null) {
+                bits = registry.toBits(authentication.getAuthorities());
+            } else {
+                bits = new long[0];
+            }
+        }
+        return bits;
+    }
+
+    private static String withRolePrefix(String role) {
+        return role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role;
+    }
+}
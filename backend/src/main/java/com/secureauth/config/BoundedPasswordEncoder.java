@@ -0,0 +1,132 @@
+package com.secureauth.config;
+
+import com.secureauth.dto.PasswordHashingStatsResponse;
+import com.secureauth.exceptions.TooManyRequestsException;
+import com.secureauth.utils.LatencyHistogram;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PasswordEncoder exécutant le hachage (BCrypt, PBKDF2, Argon2) sur un pool dédié, dimensionné sur les cœurs
+ * La file d'attente est bornée : lorsqu'elle est pleine, l'appel échoue immédiatement (HTTP 429)
+ * au lieu de laisser la latence croître. Les threads Tomcat attendent le résultat sans consommer de CPU,
+ * et les autres endpoints gardent la main pendant une vague de connexions.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final long retryAfterSeconds;
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram hashTime = new LatencyHistogram();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  long timeoutMillis, long retryAfterSeconds) {
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hashing pool: {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt);
+                try {
+                    return task.call();
+                } finally {
+                    hashTime.record(System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Serveur saturé, réessayez dans quelques instants.", retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new TooManyRequestsException("Serveur saturé, réessayez dans quelques instants.", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Password hashing interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    /**
+     * Arrêt du pool (méthode de destruction déduite par Spring pour le bean)
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public PasswordHashingStatsResponse getStats() {
+        return PasswordHashingStatsResponse.builder()
+                .poolSize(executor.getMaximumPoolSize())
+                .activeThreads(executor.getActiveCount())
+                .queueDepth(executor.getQueue().size())
+                .queueCapacity(executor.getQueue().size() + executor.getQueue().remainingCapacity())
+                .completed(executor.getCompletedTaskCount())
+                .rejected(rejected.sum())
+                .timedOut(timedOut.sum())
+                .meanQueueWaitMillis(queueWait.getMeanMillis())
+                .meanHashMillis(hashTime.getMeanMillis())
+                .queueWaitHistogram(queueWait.snapshot())
+                .hashTimeHistogram(hashTime.snapshot())
+                .build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.secureauth.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
@@ -16,6 +18,19 @@ import java.util.Optional;
 @EnableJpaAuditing(auditorAwareRef = "auditorProvider", modifyOnCreate = false)
 public class JpaConfig {
 
+    /**
+     * Active les inserts JDBC en batch (utilisés par le pipeline d'audit)
+     * Pour des inserts multi-lignes, ajouter reWriteBatchedInserts=true à l'URL JDBC PostgreSQL
+     */
+    @Bean
+    public HibernatePropertiesCustomizer batchingPropertiesCustomizer(
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        return properties -> {
+            properties.put("hibernate.jdbc.batch_size", batchSize);
+            properties.put("hibernate.order_inserts", true);
+        };
+    }
+
     @Bean
     public AuditorAware<String> auditorProvider() {
         return () -> {
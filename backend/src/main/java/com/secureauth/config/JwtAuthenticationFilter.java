@@ -1,14 +1,15 @@
 package com.secureauth.config;
 
-import com.secureauth.entities.User;
 import com.secureauth.services.ApiKeyService;
+import com.secureauth.services.SessionActivityTracker;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,6 +18,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Filtre JWT et API Key - Intercepte les requêtes et valide le token JWT ou la clé API
@@ -29,6 +34,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
     private final ApiKeyService apiKeyService;
+    private final PermissionRegistry permissionRegistry;
+    private final SessionActivityTracker sessionActivityTracker;
 
     @Override
     protected void doFilterInternal(
@@ -65,23 +72,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     private void handleApiKeyAuthentication(String apiKey, HttpServletRequest request) {
         try {
-            if (apiKeyService.validateApiKey(apiKey)) {
-                User user = apiKeyService.getUserByApiKey(apiKey);
-                if (user != null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
-                    
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    
-                    logger.debug("API Key authentication successful for user: " + user.getUsername());
-                }
+            Optional<ApiKeyService.VerifiedApiKey> verified = apiKeyService.authenticate(apiKey);
+            if (verified.isPresent()) {
+                String username = verified.get().getUsername();
+                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+
+                AuthorityBitsAuthenticationToken authToken = new AuthorityBitsAuthenticationToken(
+                        userDetails,
+                        userDetails.getAuthorities(),
+                        permissionRegistry.toBits(userDetails.getAuthorities())
+                );
+                authToken.setDetails(
+                        new WebAuthenticationDetailsSource().buildDetails(request)
+                );
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+
+                logger.debug("API Key authentication successful for user: " + username);
             } else {
                 logger.warn("Invalid or expired API key");
             }
@@ -95,25 +101,57 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     private void handleJwtAuthentication(String jwt, HttpServletRequest request) {
         try {
-            String username = jwtService.extractUsername(jwt);
+            TokenClaims claims = jwtService.parseToken(jwt);
+            String username = claims.getSubject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                // Mode stateless : principal reconstruit depuis les claims, sans accès à la base
+                UserDetails userDetails = jwtService.isStatelessPrincipal(claims)
+                        ? buildPrincipalFromClaims(claims)
+                        : this.userDetailsService.loadUserByUsername(username);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                if (jwtService.isTokenValid(claims, userDetails)) {
+                    AuthorityBitsAuthenticationToken authToken = new AuthorityBitsAuthenticationToken(
                             userDetails,
-                            null,
-                            userDetails.getAuthorities()
+                            userDetails.getAuthorities(),
+                            permissionRegistry.toBits(userDetails.getAuthorities())
                     );
                     authToken.setDetails(
                             new WebAuthenticationDetailsSource().buildDetails(request)
                     );
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+
+                    // Activité de la session (fusionnée en mémoire, écrite en base par lots)
+                    String sessionToken = request.getHeader("X-Session-Token");
+                    if (sessionToken != null) {
+                        sessionActivityTracker.recordActivity(sessionToken);
+                    }
                 }
             }
         } catch (Exception e) {
             logger.error("JWT validation error: " + e.getMessage());
         }
     }
+
+    /**
+     * Construit un UserDetails à partir des rôles et permissions embarqués dans le token
+     */
+    private UserDetails buildPrincipalFromClaims(TokenClaims claims) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (Object role : (Collection<?>) claims.getClaim(JwtService.CLAIM_ROLES)) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+        Object permissions = claims.getClaim(JwtService.CLAIM_PERMISSIONS);
+        if (permissions instanceof Collection<?> names) {
+            for (Object permission : names) {
+                authorities.add(new SimpleGrantedAuthority(permission.toString()));
+            }
+        }
+
+        return org.springframework.security.core.userdetails.User
+                .withUsername(claims.getSubject())
+                .password("")
+                .authorities(authorities)
+                .build();
+    }
 }
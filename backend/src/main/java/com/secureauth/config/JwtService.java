@@ -1,17 +1,25 @@
 package com.secureauth.config;
 
+import com.secureauth.entities.Permission;
+import com.secureauth.entities.Role;
+import com.secureauth.entities.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Function;
 
 /**
@@ -30,6 +38,34 @@ public class JwtService {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpiration;
 
+    // Mode stateless : rôles, permissions et version embarqués dans l'access token.
+    // Aucune vérification en base par requête : après un changement de droits ou de statut,
+    // un access token déjà émis reste accepté jusqu'à son expiration (jwt.expiration) ;
+    // le renouvellement, lui, est refusé dès que la version du refresh token est dépassée.
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_PERMISSIONS = "permissions";
+    // User.tokenVersion à l'émission (diagnostic ; la vérification se fait au renouvellement)
+    public static final String CLAIM_USER_VERSION = "ver";
+
+    // Clé HMAC et parser construits une seule fois (immuables, thread-safe)
+    private SecretKey signInKey;
+    private JwtParser jwtParser;
+
+    /**
+     * Décode le secret et prépare le parser au démarrage
+     */
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secret);
+        this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+    }
+
     /**
      * Extrait le username du token
      */
@@ -56,14 +92,38 @@ public class JwtService {
      * Génère un access token avec des claims supplémentaires
      */
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        if (statelessPrincipal && userDetails instanceof User user) {
+            extraClaims = new HashMap<>(extraClaims);
+            extraClaims.putAll(buildPrincipalClaims(user));
+        }
         return buildToken(extraClaims, userDetails, jwtExpiration);
     }
 
     /**
-     * Génère un refresh token
+     * Claims nécessaires pour reconstruire le principal sans accès à la base
      */
-    public String generateRefreshToken(UserDetails userDetails) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+    private Map<String, Object> buildPrincipalClaims(User user) {
+        Set<String> roles = new TreeSet<>();
+        Set<String> permissions = new TreeSet<>();
+        for (Role role : user.getRoles()) {
+            roles.add(role.getName());
+            for (Permission permission : role.getPermissions()) {
+                permissions.add(permission.getName());
+            }
+        }
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_ROLES, List.copyOf(roles));
+        claims.put(CLAIM_PERMISSIONS, List.copyOf(permissions));
+        claims.put(CLAIM_USER_VERSION, user.getTokenVersion());
+        return claims;
+    }
+
+    /**
+     * Indique si le principal peut être reconstruit depuis les claims
+     */
+    public boolean isStatelessPrincipal(TokenClaims claims) {
+        return statelessPrincipal && claims.getClaim(CLAIM_ROLES) != null;
     }
 
     /**
@@ -88,51 +148,43 @@ public class JwtService {
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
     /**
-     * Valide un token JWT
+     * Vérifie la signature une seule fois et retourne une vue immuable des claims
+     * Lève une JwtException si le token est invalide ou expiré
      */
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    public TokenClaims parseToken(String token) {
+        return TokenClaims.from(extractAllClaims(token));
     }
 
     /**
-     * Vérifie si un token est expiré
+     * Valide un token JWT
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(parseToken(token), userDetails);
     }
 
     /**
-     * Extrait la date d'expiration du token
+     * Valide des claims déjà vérifiés pour un utilisateur (les tokens temporaires 2FA sont refusés)
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(TokenClaims claims, UserDetails userDetails) {
+        return !claims.isTemp()
+                && userDetails.getUsername().equals(claims.getSubject())
+                && !claims.isExpired();
     }
 
     /**
      * Extrait tous les claims du token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith((javax.crypto.SecretKey) getSignInKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    /**
-     * Récupère la clé de signature
-     */
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     /**
      * Récupère la durée d'expiration du refresh token
      */
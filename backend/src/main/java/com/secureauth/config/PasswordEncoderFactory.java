@@ -0,0 +1,122 @@
+package com.secureauth.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Construction de l'encodeur de mots de passe
+ * - coûts fixés par configuration, identiques sur toutes les instances (un hash produit par une instance
+ *   n'est jamais considéré comme à ré-encoder par une autre) ;
+ * - calibration optionnelle : mesure le coût sur la machine courante et journalise une recommandation,
+ *   sans jamais l'appliquer ;
+ * - DelegatingPasswordEncoder : les hashs sont préfixés par l'algorithme ({bcrypt}, {pbkdf2}, {argon2}),
+ *   les anciens hashs BCrypt sans préfixe restent vérifiables et sont signalés à ré-encoder
+ */
+@Slf4j
+final class PasswordEncoderFactory {
+
+    static final String BCRYPT = "bcrypt";
+    static final String PBKDF2 = "pbkdf2";
+    static final String ARGON2 = "argon2";
+
+    private static final String CALIBRATION_PASSWORD = "calibration-Password-1";
+    private static final int PBKDF2_SALT_LENGTH = 16;
+    private static final int BCRYPT_MIN_STRENGTH = 4;
+
+    private PasswordEncoderFactory() {
+    }
+
+    /**
+     * @param algorithm        algorithme des nouveaux hashs (bcrypt, pbkdf2 ou argon2)
+     * @param strength         coût BCrypt
+     * @param pbkdf2Iterations nombre d'itérations PBKDF2
+     * @param targetMillis     temps de hachage visé pour la recommandation ; 0 désactive la mesure
+     * @param maxStrength      coût BCrypt maximal recommandé
+     */
+    static PasswordEncoder create(String algorithm, int strength, int pbkdf2Iterations,
+                                  long targetMillis, int maxStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        Pbkdf2PasswordEncoder pbkdf2 = pbkdf2(pbkdf2Iterations);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(PBKDF2, pbkdf2);
+
+        // Argon2 nécessite BouncyCastle : proposé uniquement s'il est présent
+        boolean argon2Available = ClassUtils.isPresent(
+                "org.bouncycastle.crypto.generators.Argon2BytesGenerator", PasswordEncoderFactory.class.getClassLoader());
+        if (argon2Available) {
+            encoders.put(ARGON2, Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        }
+
+        String encodingId = algorithm != null ? algorithm.toLowerCase() : BCRYPT;
+        if (!encoders.containsKey(encodingId)) {
+            log.warn("Password hashing algorithm '{}' unavailable, using bcrypt", algorithm);
+            encodingId = BCRYPT;
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encodingId, encoders);
+        // Hashs existants sans préfixe {id} : BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        log.info("Password encoder: {} (bcrypt strength {}, pbkdf2 {} iterations, argon2 {})",
+                encodingId, strength, pbkdf2Iterations, argon2Available ? "available" : "unavailable");
+
+        if (targetMillis > 0) {
+            recommendBcrypt(bcrypt, strength, targetMillis, maxStrength);
+            recommendPbkdf2(pbkdf2, pbkdf2Iterations, targetMillis);
+        }
+        return delegating;
+    }
+
+    /**
+     * Coût BCrypt le plus proche du temps cible sur cette machine (chaque +1 double le temps)
+     */
+    private static void recommendBcrypt(BCryptPasswordEncoder bcrypt, int strength, long targetMillis, int maxStrength) {
+        double millis = measure(bcrypt);
+        int steps = (int) Math.round(Math.log(targetMillis / millis) / Math.log(2));
+        int recommended = Math.max(BCRYPT_MIN_STRENGTH, Math.min(maxStrength, strength + steps));
+        log.info("BCrypt strength {} takes ~{} ms here; recommended for a {} ms target: "
+                        + "security.password-hashing.strength={}",
+                strength, Math.round(millis), targetMillis, recommended);
+    }
+
+    /**
+     * Nombre d'itérations PBKDF2 atteignant le temps cible sur cette machine (temps proportionnel aux itérations)
+     */
+    private static void recommendPbkdf2(Pbkdf2PasswordEncoder pbkdf2, int iterations, long targetMillis) {
+        double millis = measure(pbkdf2);
+        long recommended = Math.min(Integer.MAX_VALUE, Math.round(iterations * (targetMillis / millis)));
+        log.info("PBKDF2 {} iterations take ~{} ms here; recommended for a {} ms target: "
+                        + "security.password-hashing.pbkdf2-iterations={}",
+                iterations, Math.round(millis), targetMillis, recommended);
+    }
+
+    private static Pbkdf2PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", PBKDF2_SALT_LENGTH, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    /**
+     * Temps médian d'un hachage (après un échauffement)
+     */
+    private static double measure(PasswordEncoder encoder) {
+        encoder.encode(CALIBRATION_PASSWORD);
+        long[] samples = new long[3];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return Math.max(samples[1] / 1_000_000.0, 0.001);
+    }
+}
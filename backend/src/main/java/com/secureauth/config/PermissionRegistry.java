@@ -0,0 +1,85 @@
+package com.secureauth.config;
+
+import com.secureauth.entities.Permission;
+import com.secureauth.entities.Role;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registre des autorités (rôles et permissions)
+ * Attribue à chaque nom un identifiant entier dense pour évaluer les droits par test de bit
+ * Les identifiants ne sont jamais réattribués : un bitset déjà calculé reste valide
+ */
+@Component
+@Slf4j
+public class PermissionRegistry {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Enregistre les rôles et permissions du catalogue (démarrage et modification des rôles)
+     */
+    public void refresh(Collection<Role> roles) {
+        for (Role role : roles) {
+            register("ROLE_" + role.getName());
+            for (Permission permission : role.getPermissions()) {
+                register(permission.getName());
+            }
+        }
+        log.debug("Permission registry refreshed: {} authorities", ids.size());
+    }
+
+    /**
+     * Retourne l'identifiant d'une autorité, en l'attribuant si nécessaire
+     */
+    public int register(String authority) {
+        return ids.computeIfAbsent(authority, key -> nextId.getAndIncrement());
+    }
+
+    /**
+     * Retourne l'identifiant d'une autorité, ou -1 si elle est inconnue
+     */
+    public int idOf(String authority) {
+        Integer id = ids.get(authority);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Convertit une collection d'autorités en bitset
+     */
+    public long[] toBits(Collection<? extends GrantedAuthority> authorities) {
+        long[] bits = new long[(nextId.get() >>> 6) + 1];
+        for (GrantedAuthority authority : authorities) {
+            if (authority.getAuthority() == null) {
+                continue;
+            }
+            int id = register(authority.getAuthority());
+            int word = id >>> 6;
+            if (word >= bits.length) {
+                long[] grown = new long[word + 1];
+                System.arraycopy(bits, 0, grown, 0, bits.length);
+                bits = grown;
+            }
+            bits[word] |= 1L << id;
+        }
+        return bits;
+    }
+
+    /**
+     * Vérifie si le bitset contient l'autorité
+     */
+    public boolean hasAuthority(long[] bits, String authority) {
+        int id = idOf(authority);
+        if (id < 0) {
+            return false;
+        }
+        int word = id >>> 6;
+        return word < bits.length && (bits[word] & (1L << id)) != 0;
+    }
+}
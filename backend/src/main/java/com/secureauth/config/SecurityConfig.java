@@ -1,8 +1,10 @@
 package com.secureauth.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -13,7 +15,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -37,6 +38,33 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
 
+    @Value("${security.password-hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${security.password-hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${security.password-hashing.timeout:5000}")
+    private long hashingTimeout;
+
+    @Value("${security.password-hashing.retry-after:1}")
+    private long hashingRetryAfter;
+
+    @Value("${security.password-hashing.algorithm:bcrypt}")
+    private String hashingAlgorithm;
+
+    @Value("${security.password-hashing.strength:10}")
+    private int hashingStrength;
+
+    @Value("${security.password-hashing.pbkdf2-iterations:310000}")
+    private int hashingPbkdf2Iterations;
+
+    @Value("${security.password-hashing.target-millis:0}")
+    private long hashingTargetMillis;
+
+    @Value("${security.password-hashing.max-strength:14}")
+    private int hashingMaxStrength;
+
     /**
      * Configuration de la chaîne de filtres de sécurité
      */
@@ -125,10 +153,24 @@ public class SecurityConfig {
     }
 
     /**
-     * Encodeur de mot de passe BCrypt
+     * Évaluation des @PreAuthorize par bitset (voir PermissionRegistry)
+     */
+    @Bean
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler(PermissionRegistry permissionRegistry) {
+        return new BitsetMethodSecurityExpressionHandler(permissionRegistry);
+    }
+
+    /**
+     * Encodeur de mot de passe exécuté sur un pool dédié à file bornée (threads = 0 : un thread par cœur)
+     * Coûts fixés par configuration (strength, pbkdf2-iterations) ; target-millis > 0 mesure la machine
+     * au démarrage et journalise les coûts recommandés. Les hashs existants d'un autre algorithme
+     * ou d'un coût inférieur sont ré-encodés à la connexion suivante
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(
+                PasswordEncoderFactory.create(hashingAlgorithm, hashingStrength, hashingPbkdf2Iterations,
+                        hashingTargetMillis, hashingMaxStrength),
+                hashingThreads, hashingQueueCapacity, hashingTimeout, hashingRetryAfter);
     }
 }
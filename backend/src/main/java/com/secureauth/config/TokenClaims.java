@@ -0,0 +1,64 @@
+package com.secureauth.config;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Vue immuable des claims d'un token JWT déjà vérifié
+ * Évite de re-parser et re-vérifier la signature pour chaque claim
+ */
+@Getter
+public final class TokenClaims {
+
+    private final String subject;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final boolean temp;
+    private final Map<String, Object> customClaims;
+
+    private TokenClaims(String subject, Date issuedAt, Date expiration,
+                        boolean temp, Map<String, Object> customClaims) {
+        this.subject = subject;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+        this.temp = temp;
+        this.customClaims = customClaims;
+    }
+
+    /**
+     * Construit la vue à partir des claims JJWT
+     */
+    static TokenClaims from(Claims claims) {
+        Map<String, Object> custom = new HashMap<>(claims);
+        custom.remove(Claims.SUBJECT);
+        custom.remove(Claims.ISSUED_AT);
+        custom.remove(Claims.EXPIRATION);
+
+        return new TokenClaims(
+                claims.getSubject(),
+                claims.getIssuedAt(),
+                claims.getExpiration(),
+                Boolean.TRUE.equals(claims.get("temp", Boolean.class)),
+                Collections.unmodifiableMap(custom)
+        );
+    }
+
+    /**
+     * Récupère un claim personnalisé
+     */
+    public Object getClaim(String name) {
+        return customClaims.get(name);
+    }
+
+    /**
+     * Vérifie si le token est expiré
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -0,0 +1,25 @@
+package com.secureauth.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration Spring MVC
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Value("${security.audit.export.timeout:600000}")
+    private long exportTimeout;
+
+    /**
+     * Délai des réponses asynchrones (exports d'audit en streaming)
+     * Le délai par défaut du conteneur (30 s) interromprait les exports volumineux
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(exportTimeout);
+    }
+}
@@ -1,6 +1,7 @@
 package com.secureauth.controllers;
 
 import com.secureauth.dto.ApiResponse;
+import com.secureauth.dto.AuditLogPageResponse;
 import com.secureauth.dto.AuditLogResponse;
 import com.secureauth.services.AuditService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,6 +32,8 @@ import java.util.List;
 @PreAuthorize("hasAnyRole('ADMIN', 'SECURITY')")
 public class AuditController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
+
     private final AuditService auditService;
 
     @Operation(summary = "Récupérer tous les logs", description = "Liste paginée de tous les logs d'audit")
@@ -90,6 +93,24 @@ public class AuditController {
         return ResponseEntity.ok(ApiResponse.success(logs));
     }
 
+    @Operation(summary = "Parcourir les logs par curseur",
+            description = "Pagination par curseur opaque (sans COUNT), adaptée aux tables volumineuses")
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<AuditLogPageResponse>> getLogsByCursor(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Boolean success,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        AuditLogPageResponse logs = auditService.getLogsAfterCursor(
+                username, action, success, startDate, endDate, cursor, pageSize);
+        return ResponseEntity.ok(ApiResponse.success(logs));
+    }
+
     @Operation(summary = "Logs récents d'un utilisateur", description = "10 derniers logs d'un utilisateur")
     @GetMapping("/recent/{username}")
     public ResponseEntity<ApiResponse<List<AuditLogResponse>>> getRecentLogs(@PathVariable String username) {
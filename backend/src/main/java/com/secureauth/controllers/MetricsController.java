@@ -0,0 +1,99 @@
+package com.secureauth.controllers;
+
+import com.secureauth.config.BoundedPasswordEncoder;
+import com.secureauth.dto.ApiResponse;
+import com.secureauth.dto.AuditPipelineStatsResponse;
+import com.secureauth.dto.CacheStatsResponse;
+import com.secureauth.dto.CleanupJobStatsResponse;
+import com.secureauth.dto.JobLeaseResponse;
+import com.secureauth.dto.LoginThrottleStatsResponse;
+import com.secureauth.dto.PasswordHashingStatsResponse;
+import com.secureauth.dto.SessionActivityStatsResponse;
+import com.secureauth.services.ApiKeyService;
+import com.secureauth.services.AuditLogWriter;
+import com.secureauth.services.CleanupJobExecutor;
+import com.secureauth.services.JobLeaseManager;
+import com.secureauth.services.LoginThrottleService;
+import com.secureauth.services.SessionActivityTracker;
+import com.secureauth.services.UserCacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller de supervision
+ * Endpoints: statistiques des caches et files internes
+ */
+@RestController
+@RequestMapping("/api/v1/admin/metrics")
+@RequiredArgsConstructor
+@Tag(name = "Metrics", description = "API de supervision des composants internes")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class MetricsController {
+
+    private final UserCacheService userCacheService;
+    private final ApiKeyService apiKeyService;
+    private final AuditLogWriter auditLogWriter;
+    private final LoginThrottleService loginThrottleService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final SessionActivityTracker sessionActivityTracker;
+    private final CleanupJobExecutor cleanupJobExecutor;
+    private final JobLeaseManager jobLeaseManager;
+
+    @Operation(summary = "Statistiques du cache utilisateurs", description = "Hits, misses et évictions du cache UserDetails")
+    @GetMapping("/user-cache")
+    public ResponseEntity<ApiResponse<CacheStatsResponse>> getUserCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(userCacheService.getStats()));
+    }
+
+    @Operation(summary = "Statistiques du cache des clés API", description = "Hits, misses et évictions du cache des clés API vérifiées")
+    @GetMapping("/api-key-cache")
+    public ResponseEntity<ApiResponse<CacheStatsResponse>> getApiKeyCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(apiKeyService.getCacheStats()));
+    }
+
+    @Operation(summary = "Statistiques du pipeline d'audit", description = "Profondeur de file, événements écrits, abandonnés et débordés")
+    @GetMapping("/audit-pipeline")
+    public ResponseEntity<ApiResponse<AuditPipelineStatsResponse>> getAuditPipelineStats() {
+        return ResponseEntity.ok(ApiResponse.success(auditLogWriter.getStats()));
+    }
+
+    @Operation(summary = "Statistiques de limitation des connexions", description = "Clés suivies et tentatives rejetées par IP, username et couple IP + username")
+    @GetMapping("/login-throttle")
+    public ResponseEntity<ApiResponse<LoginThrottleStatsResponse>> getLoginThrottleStats() {
+        return ResponseEntity.ok(ApiResponse.success(loginThrottleService.getStats()));
+    }
+
+    @Operation(summary = "Statistiques du hachage des mots de passe", description = "Profondeur de file, rejets et histogrammes de latence du pool de hachage")
+    @GetMapping("/password-hashing")
+    public ResponseEntity<ApiResponse<PasswordHashingStatsResponse>> getPasswordHashingStats() {
+        return ResponseEntity.ok(ApiResponse.success(passwordEncoder.getStats()));
+    }
+
+    @Operation(summary = "Statistiques de l'activité des sessions", description = "Dates d'activité en attente d'écriture, écrites et ignorées")
+    @GetMapping("/sessions")
+    public ResponseEntity<ApiResponse<SessionActivityStatsResponse>> getSessionActivityStats() {
+        return ResponseEntity.ok(ApiResponse.success(sessionActivityTracker.getStats()));
+    }
+
+    @Operation(summary = "Statistiques des tâches de nettoyage", description = "Lignes touchées, durée et échecs de la dernière exécution de chaque tâche")
+    @GetMapping("/cleanup-jobs")
+    public ResponseEntity<ApiResponse<List<CleanupJobStatsResponse>>> getCleanupJobStats() {
+        return ResponseEntity.ok(ApiResponse.success(cleanupJobExecutor.getStats()));
+    }
+
+    @Operation(summary = "Baux des tâches planifiées", description = "Instance détentrice, échéance du bail et dernière exécution de chaque tâche de maintenance")
+    @GetMapping("/job-leases")
+    public ResponseEntity<ApiResponse<List<JobLeaseResponse>>> getJobLeases() {
+        return ResponseEntity.ok(ApiResponse.success(jobLeaseManager.getLeases()));
+    }
+}
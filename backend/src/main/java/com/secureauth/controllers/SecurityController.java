@@ -14,6 +14,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -54,21 +55,18 @@ public class SecurityController {
         return ResponseEntity.ok(ApiResponse.success(logs));
     }
 
-    @Operation(summary = "Exporter un rapport d'audit", description = "Génère un fichier CSV ou JSON")
+    @Operation(summary = "Exporter un rapport d'audit", description = "Génère un fichier CSV, JSON, NDJSON gzip ou colonnaire")
     @PostMapping("/audit/export")
-    public ResponseEntity<byte[]> exportAuditReport(@Valid @RequestBody AuditExportRequest request) {
+    public ResponseEntity<StreamingResponseBody> exportAuditReport(@Valid @RequestBody AuditExportRequest request) {
         
-        byte[] content = auditService.exportAuditReport(request);
+        // Le contenu est produit pendant l'écriture de la réponse, sans tampon en mémoire
+        StreamingResponseBody content = out -> auditService.exportAuditReport(request, out);
         String filename = "audit_report_" + System.currentTimeMillis();
         
+        AuditExportRequest.Format format = AuditExportRequest.Format.from(request.getFormat());
         HttpHeaders headers = new HttpHeaders();
-        if ("CSV".equalsIgnoreCase(request.getFormat())) {
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-            filename += ".csv";
-        } else {
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            filename += ".json";
-        }
+        headers.setContentType(MediaType.parseMediaType(format.getContentType()));
+        filename += format.getExtension();
         headers.setContentDispositionFormData("attachment", filename);
         
         return ResponseEntity.ok()
@@ -21,5 +21,45 @@ public class AuditExportRequest {
     private String action;
     private String username;
     private String ipAddress;
-    private String format; // JSON ou CSV
+    private String format; // JSON, CSV, NDJSON_GZIP ou COLUMNAR
+
+    /**
+     * Formats d'export disponibles
+     */
+    public enum Format {
+        JSON("application/json", ".json"),
+        CSV("text/csv", ".csv"),
+        NDJSON_GZIP("application/gzip", ".ndjson.gz"),
+        COLUMNAR("application/octet-stream", ".saac");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Format demandé, JSON par défaut (valeur absente ou inconnue)
+         */
+        public static Format from(String value) {
+            if (value != null) {
+                for (Format format : values()) {
+                    if (format.name().equalsIgnoreCase(value)) {
+                        return format;
+                    }
+                }
+            }
+            return JSON;
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package com.secureauth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO pour une page de logs d'audit paginée par curseur
+ * nextCursor est null lorsqu'il n'y a plus de résultats
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogPageResponse {
+
+    private List<AuditLogResponse> content;
+    private String nextCursor;
+    private Integer size;
+}
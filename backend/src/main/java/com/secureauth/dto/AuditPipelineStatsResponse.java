@@ -0,0 +1,29 @@
+package com.secureauth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour les statistiques du pipeline d'écriture de l'audit
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditPipelineStatsResponse {
+
+    private Boolean asyncEnabled;
+    private String overflowPolicy;
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Long written;
+    private Long dropped;
+    private Long spilled;
+    private Long failedBatches;
+    private Integer journalPendingSegments;
+    private Long journalReplayed;
+    private Long journalCorrupted;
+    private Long journalQuarantined;
+}
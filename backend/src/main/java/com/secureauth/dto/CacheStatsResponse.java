@@ -0,0 +1,42 @@
+package com.secureauth.dto;
+
+import com.secureauth.utils.BoundedTtlCache;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour les statistiques d'un cache mémoire
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+
+    private String name;
+    private Integer size;
+    private Integer maxSize;
+    private Long ttlMillis;
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Double hitRatio;
+
+    public static CacheStatsResponse of(String name, BoundedTtlCache<?, ?> cache) {
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        long total = hits + misses;
+        return CacheStatsResponse.builder()
+                .name(name)
+                .size(cache.size())
+                .maxSize(cache.getMaxSize())
+                .ttlMillis(cache.getTtlMillis())
+                .hits(hits)
+                .misses(misses)
+                .evictions(cache.getEvictions())
+                .hitRatio(total == 0 ? 0.0 : (double) hits / total)
+                .build();
+    }
+}
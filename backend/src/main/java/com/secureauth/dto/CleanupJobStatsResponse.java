@@ -0,0 +1,27 @@
+package com.secureauth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO pour les statistiques d'une tâche de nettoyage
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CleanupJobStatsResponse {
+
+    private String job;
+    private LocalDateTime lastRunAt;
+    private Long lastRows;
+    private Long lastDurationMillis;
+    private Integer lastChunks;
+    private Long totalRows;
+    private Long runs;
+    private Long failures;
+}
@@ -0,0 +1,27 @@
+package com.secureauth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO pour l'état d'un bail de tâche planifiée (exécution unique dans le cluster)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLeaseResponse {
+
+    private String job;
+    private String owner;
+    private Boolean ownedByThisInstance;
+    private LocalDateTime acquiredAt;
+    private LocalDateTime leaseUntil;
+    private LocalDateTime lastCompletedAt;
+    private Long lastDurationMillis;
+    private Long runCount;
+}
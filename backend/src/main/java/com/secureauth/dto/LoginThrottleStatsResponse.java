@@ -0,0 +1,27 @@
+package com.secureauth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour les statistiques de limitation des connexions
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginThrottleStatsResponse {
+
+    private Boolean enabled;
+    private Integer trackedIps;
+    private Integer trackedUsernames;
+    private Integer trackedIpUsernames;
+    private Long rejectedByIp;
+    private Long rejectedByUsername;
+    private Long rejectedByIpUsername;
+    private Long evictedLeastRecent;
+    private Boolean clusterEnabled;
+    private Integer clusterTrackedWindows;
+}
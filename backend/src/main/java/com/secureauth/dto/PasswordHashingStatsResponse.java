@@ -0,0 +1,30 @@
+package com.secureauth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO pour les statistiques du pool de hachage des mots de passe
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStatsResponse {
+
+    private Integer poolSize;
+    private Integer activeThreads;
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Long completed;
+    private Long rejected;
+    private Long timedOut;
+    private Double meanQueueWaitMillis;
+    private Double meanHashMillis;
+    private Map<String, Long> queueWaitHistogram;
+    private Map<String, Long> hashTimeHistogram;
+}
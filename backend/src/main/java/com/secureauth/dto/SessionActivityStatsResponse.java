@@ -0,0 +1,20 @@
+package com.secureauth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour les statistiques des écritures différées de l'activité des sessions
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionActivityStatsResponse {
+
+    private Integer pendingActivity;
+    private Long flushedActivity;
+    private Long droppedActivity;
+}
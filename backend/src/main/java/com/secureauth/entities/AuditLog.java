@@ -2,8 +2,6 @@ package com.secureauth.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
@@ -13,7 +11,6 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "audit_logs")
-@EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,23 +18,31 @@ import java.time.LocalDateTime;
 @Builder
 public class AuditLog {
 
+    // Longueurs des colonnes, appliquées par AuditLogWriter avant écriture
+    public static final int USERNAME_LENGTH = 50;
+    public static final int ACTION_LENGTH = 100;
+    public static final int IP_ADDRESS_LENGTH = 50;
+    public static final int USER_AGENT_LENGTH = 255;
+
+    // Séquence (et non IDENTITY) pour permettre les inserts JDBC en batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_logs_seq")
+    @SequenceGenerator(name = "audit_logs_seq", sequenceName = "audit_logs_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, length = 50)
+    @Column(nullable = false, length = USERNAME_LENGTH)
     private String username;
 
-    @Column(nullable = false, length = 100)
+    @Column(nullable = false, length = ACTION_LENGTH)
     private String action;
 
     @Column(columnDefinition = "TEXT")
     private String details;
 
-    @Column(length = 50)
+    @Column(length = IP_ADDRESS_LENGTH)
     private String ipAddress;
 
-    @Column(length = 255)
+    @Column(length = USER_AGENT_LENGTH)
     private String userAgent;
 
     @Builder.Default
@@ -47,17 +52,26 @@ public class AuditLog {
     @Column(columnDefinition = "TEXT")
     private String errorMessage;
 
-    @CreatedDate
+    // Horodaté à la capture de l'événement, pas à son écriture différée
     @Column(nullable = false, updatable = false)
     private LocalDateTime timestamp;
 
+    @PrePersist
+    protected void onCreate() {
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
+    }
+
     /**
      * Types d'actions auditées
      */
     public static class Action {
         public static final String LOGIN_SUCCESS = "LOGIN_SUCCESS";
         public static final String LOGIN_FAILED = "LOGIN_FAILED";
+        public static final String LOGIN_THROTTLED = "LOGIN_THROTTLED";
         public static final String LOGOUT = "LOGOUT";
+        public static final String REFRESH_TOKEN_REUSED = "REFRESH_TOKEN_REUSED";
         public static final String PASSWORD_CHANGED = "PASSWORD_CHANGED";
         public static final String PASSWORD_RESET = "PASSWORD_RESET";
         public static final String USER_CREATED = "USER_CREATED";
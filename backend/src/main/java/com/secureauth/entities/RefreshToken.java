@@ -6,10 +6,14 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
- * Entité RefreshToken - Gère les tokens de rafraîchissement JWT
- * Permet le renouvellement des access tokens sans nouvelle authentification
+ * Entité RefreshToken - Gère les tokens de rafraîchissement
+ * Permet le renouvellement des access tokens sans nouvelle authentification.
+ * Token opaque aléatoire dont seule l'empreinte SHA-256 est stockée ; renouvelé à chaque utilisation,
+ * les tokens successifs d'une même connexion partagent un familyId (détection de réutilisation).
+ * rotated : remplacé par un successeur ; revoked : révoqué explicitement (déconnexion, famille révoquée).
  */
 @Entity
 @Table(name = "refresh_tokens")
@@ -25,13 +29,28 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 500)
-    private String token;
+    /**
+     * SHA-256 du token (le token en clair n'est pas stocké)
+     */
+    @Column(name = "token_hash", nullable = false, unique = true, length = 32)
+    private byte[] tokenHash;
+
+    /**
+     * Famille : identique pour tous les tokens issus d'une même connexion
+     */
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    /**
+     * User.tokenVersion à l'émission : un renouvellement avec une version dépassée est refusé
+     */
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion;
+
     @Column(nullable = false)
     private LocalDateTime expiryDate;
 
@@ -45,6 +64,12 @@ public class RefreshToken {
 
     private LocalDateTime revokedAt;
 
+    @Builder.Default
+    @Column(nullable = false)
+    private Boolean rotated = false;
+
+    private LocalDateTime rotatedAt;
+
     /**
      * Vérifie si le token est expiré
      */
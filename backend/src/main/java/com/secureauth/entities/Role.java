@@ -1,11 +1,15 @@
 package com.secureauth.entities;
 
+import com.secureauth.utils.AuthorityInterner;
+import com.secureauth.utils.AuthorityMemo;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import org.springframework.security.core.GrantedAuthority;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -50,11 +54,41 @@ public class Role {
     @Column(nullable = false)
     private Boolean active = true;
 
+    // Autorités précalculées (ROLE_x + permissions), reconstruites après modification du rôle (hors builder)
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private final AuthorityMemo authorities = new AuthorityMemo();
+
+    /**
+     * Retourne l'ensemble immuable des autorités accordées par ce rôle
+     */
+    public Set<GrantedAuthority> getAuthorities() {
+        return authorities.get(() -> {
+            Set<GrantedAuthority> built = new HashSet<>(permissions.size() + 1);
+            built.add(AuthorityInterner.ofRole(name));
+            for (Permission permission : permissions) {
+                built.add(AuthorityInterner.of(permission.getName()));
+            }
+            return Collections.unmodifiableSet(built);
+        });
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.authorities.reset();
+    }
+
+    public void setPermissions(Set<Permission> permissions) {
+        this.permissions = permissions;
+        this.authorities.reset();
+    }
+
     /**
      * Ajoute une permission au rôle
      */
     public void addPermission(Permission permission) {
         this.permissions.add(permission);
+        this.authorities.reset();
     }
 
     /**
@@ -62,5 +96,6 @@ public class Role {
      */
     public void removePermission(Permission permission) {
         this.permissions.remove(permission);
+        this.authorities.reset();
     }
 }
@@ -1,19 +1,19 @@
 package com.secureauth.entities;
 
+import com.secureauth.utils.AuthorityMemo;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Entité User - Représente un utilisateur du système IAM
@@ -92,6 +92,11 @@ public class User implements UserDetails {
     @Column(length = 500)
     private String passwordHistory;
 
+    // Incrémenté à chaque changement de droits ou de statut (invalide les claims embarqués)
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer tokenVersion = 0;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
         name = "user_roles",
@@ -110,19 +115,30 @@ public class User implements UserDetails {
 
     private LocalDateTime lastLoginAt;
 
+    // Union des autorités des rôles, calculée une fois par instance chargée (hors builder)
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private final AuthorityMemo authorities = new AuthorityMemo();
+
+    public void setRoles(Set<Role> roles) {
+        this.roles = roles;
+        this.authorities.reset();
+    }
+
     // UserDetails implementation
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return roles.stream()
-            .flatMap(role -> {
-                Set<GrantedAuthority> authorities = new HashSet<>();
-                authorities.add(new SimpleGrantedAuthority("ROLE_" + role.getName()));
-                authorities.addAll(role.getPermissions().stream()
-                    .map(permission -> new SimpleGrantedAuthority(permission.getName()))
-                    .collect(Collectors.toSet()));
-                return authorities.stream();
-            })
-            .collect(Collectors.toSet());
+        return authorities.get(() -> {
+            if (roles.size() == 1) {
+                // Un seul rôle : on réutilise directement l'ensemble partagé du rôle
+                return roles.iterator().next().getAuthorities();
+            }
+            Set<GrantedAuthority> union = new HashSet<>();
+            for (Role role : roles) {
+                union.addAll(role.getAuthorities());
+            }
+            return Collections.unmodifiableSet(union);
+        });
     }
 
     @Override
@@ -185,6 +201,14 @@ public class User implements UserDetails {
     public void lock() {
         this.accountNonLocked = false;
         this.lockTime = LocalDateTime.now();
+        incrementTokenVersion();
+    }
+
+    /**
+     * Incrémente la version des tokens (droits ou statut modifiés)
+     */
+    public void incrementTokenVersion() {
+        this.tokenVersion = tokenVersion == null ? 1 : tokenVersion + 1;
     }
 
     /**
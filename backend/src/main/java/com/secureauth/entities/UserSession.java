@@ -24,7 +24,16 @@ public class UserSession {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false)
+    /**
+     * SHA-256 du token de session (le token en clair n'est pas stocké)
+     */
+    @Column(name = "session_token_hash", nullable = false, unique = true, length = 32)
+    private byte[] sessionTokenHash;
+
+    /**
+     * Token en clair, renvoyé au client à la création uniquement
+     */
+    @Transient
     private String sessionToken;
 
     @Column(length = 45)
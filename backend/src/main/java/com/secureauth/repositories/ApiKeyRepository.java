@@ -7,7 +7,6 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,8 +22,6 @@ public interface ApiKeyRepository extends JpaRepository<ApiKey, Long> {
     
     List<ApiKey> findByUserId(Long userId);
     
-    List<ApiKey> findByExpiresAtBeforeAndActiveTrue(LocalDateTime dateTime);
-    
     boolean existsByKeyHash(String keyHash);
 
     void deleteByUser_Id(Long userId);
@@ -1,15 +1,23 @@
 package com.secureauth.repositories;
 
 import com.secureauth.entities.AuditLog;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository pour l'entité AuditLog
@@ -43,13 +51,13 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
 
     /**
      * Recherche avancée avec filtres multiples
+     * Les bornes de dates sont obligatoires (prédicat simple) pour l'élagage des partitions
      */
     @Query("SELECT a FROM AuditLog a WHERE " +
            "(:username IS NULL OR a.username = :username) AND " +
            "(:action IS NULL OR a.action = :action) AND " +
            "(:success IS NULL OR a.success = :success) AND " +
-           "(:startDate IS NULL OR a.timestamp >= :startDate) AND " +
-           "(:endDate IS NULL OR a.timestamp <= :endDate)")
+           "a.timestamp BETWEEN :startDate AND :endDate")
     Page<AuditLog> findByFilters(
             @Param("username") String username,
             @Param("action") String action,
@@ -59,6 +67,29 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
             Pageable pageable
     );
 
+    /**
+     * Pagination par clé (keyset) sur (timestamp, id) décroissants, sans COUNT
+     * Retourne les logs strictement avant la position (cursorTimestamp, cursorId)
+     */
+    @Query("SELECT a FROM AuditLog a WHERE " +
+           "(:username IS NULL OR a.username = :username) AND " +
+           "(:action IS NULL OR a.action = :action) AND " +
+           "(:success IS NULL OR a.success = :success) AND " +
+           "a.timestamp BETWEEN :startDate AND :endDate AND " +
+           "a.timestamp <= :cursorTimestamp AND " +
+           "(a.timestamp < :cursorTimestamp OR a.id < :cursorId) " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findPageBefore(
+            @Param("username") String username,
+            @Param("action") String action,
+            @Param("success") Boolean success,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("cursorTimestamp") LocalDateTime cursorTimestamp,
+            @Param("cursorId") Long cursorId,
+            Limit limit
+    );
+
     /**
      * Récupère les derniers logs d'un utilisateur
      */
@@ -80,7 +111,26 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     List<AuditLog> findByActionInAndTimestampBetween(List<String> actions, LocalDateTime start, LocalDateTime end);
 
     /**
-     * Export: recherche par période sans pagination
+     * Export: parcours par curseur côté serveur, filtres appliqués en SQL
+     * Les motifs LIKE sont déjà échappés par l'appelant (échappement par antislash)
+     * Doit être consommé dans une transaction (le curseur PostgreSQL exige autocommit désactivé)
      */
-    List<AuditLog> findAllByTimestampBetween(LocalDateTime start, LocalDateTime end);
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT a FROM AuditLog a WHERE " +
+           "a.timestamp BETWEEN :start AND :end AND " +
+           "(:action IS NULL OR a.action LIKE :action ESCAPE '\\') AND " +
+           "(:username IS NULL OR a.username LIKE :username ESCAPE '\\') AND " +
+           "(:ipAddress IS NULL OR a.ipAddress LIKE :ipAddress ESCAPE '\\') " +
+           "ORDER BY a.timestamp, a.id")
+    Stream<AuditLog> streamForExport(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("action") String action,
+            @Param("username") String username,
+            @Param("ipAddress") String ipAddress
+    );
 }
@@ -2,11 +2,17 @@ package com.secureauth.repositories;
 
 import com.secureauth.entities.RefreshToken;
 import com.secureauth.entities.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Repository pour l'entité RefreshToken
@@ -15,22 +21,57 @@ import java.util.Optional;
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
     /**
-     * Recherche un refresh token par son token
+     * Recherche un refresh token par son empreinte, avec son utilisateur
      */
-    Optional<RefreshToken> findByToken(String token);
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.user WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashWithUser(@Param("tokenHash") byte[] tokenHash);
 
     /**
-     * Recherche tous les tokens d'un utilisateur
+     * Marque un token comme renouvelé ; 0 s'il est déjà renouvelé (ex. renouvellement concurrent) ou révoqué
      */
-    List<RefreshToken> findByUser(User user);
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.rotated = true, r.rotatedAt = :now " +
+            "WHERE r.id = :id AND r.rotated = false AND r.revoked = false")
+    int markRotated(@Param("id") Long id, @Param("now") LocalDateTime now);
 
     /**
-     * Supprime tous les tokens d'un utilisateur
+     * Date de renouvellement d'un token renouvelé et non révoqué (lue en base, hors contexte de persistance)
      */
-    void deleteByUser(User user);
+    @Query("SELECT r.rotatedAt FROM RefreshToken r WHERE r.id = :id AND r.rotated = true AND r.revoked = false")
+    Optional<LocalDateTime> findRotatedAt(@Param("id") Long id);
+
+    /**
+     * Verrouille la ligne du token (SELECT ... FOR UPDATE) jusqu'à la fin de la transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RefreshToken r WHERE r.id = :id")
+    Optional<RefreshToken> lockById(@Param("id") Long id);
+
+    /**
+     * Marque comme renouvelé le token actif d'une famille (successeur écarté par une représentation
+     * dans la fenêtre de grâce) ; le représenter ensuite relève de la détection de réutilisation
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.rotated = true, r.rotatedAt = :now " +
+            "WHERE r.familyId = :familyId AND r.rotated = false AND r.revoked = false")
+    int supersedeActive(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now);
 
     /**
-     * Vérifie si un token existe
+     * Révoque tous les tokens actifs d'une famille
      */
-    boolean existsByToken(String token);
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true, r.revokedAt = :now WHERE r.familyId = :familyId AND r.revoked = false")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now);
+
+    /**
+     * Révoque en une seule requête tous les tokens actifs d'un utilisateur
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true, r.revokedAt = :now WHERE r.user = :user AND r.revoked = false")
+    int revokeAllByUser(@Param("user") User user, @Param("now") LocalDateTime now);
+
+    /**
+     * Supprime tous les tokens d'un utilisateur
+     */
+    void deleteByUser(User user);
 }
@@ -3,9 +3,11 @@ package com.secureauth.repositories;
 import com.secureauth.entities.User;
 import com.secureauth.entities.UserSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,13 +16,28 @@ public interface UserSessionRepository extends JpaRepository<UserSession, Long>
     
     List<UserSession> findByUserIdAndActiveTrue(Long userId);
     
-    Optional<UserSession> findBySessionToken(String sessionToken);
-    
-    List<UserSession> findByExpiresAtBeforeAndActiveTrue(LocalDateTime dateTime);
+    Optional<UserSession> findBySessionTokenHash(byte[] sessionTokenHash);
     
     void deleteByUserId(Long userId);
     
     void deleteByUser(User user);
     
     long countByUserIdAndActiveTrue(Long userId);
+
+    /**
+     * Invalide en une seule requête toutes les sessions actives d'un utilisateur
+     */
+    @Modifying
+    @Query("UPDATE UserSession s SET s.active = false WHERE s.user.id = :userId AND s.active = true")
+    int invalidateAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * Invalide les sessions actives d'un utilisateur au-delà des {@code keep} plus récentes
+     * Requête ensembliste : deux connexions simultanées sur deux instances aboutissent au même résultat.
+     */
+    @Modifying
+    @Query(value = "UPDATE user_sessions SET active = false WHERE id IN (" +
+            "SELECT id FROM user_sessions WHERE user_id = :userId AND active = true " +
+            "ORDER BY login_time DESC, id DESC OFFSET :keep)", nativeQuery = true)
+    int invalidateBeyondLimit(@Param("userId") Long userId, @Param("keep") int keep);
 }
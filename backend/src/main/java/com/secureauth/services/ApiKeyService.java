@@ -1,6 +1,7 @@
 package com.secureauth.services;
 
 import com.secureauth.dto.ApiKeyResponse;
+import com.secureauth.dto.CacheStatsResponse;
 import com.secureauth.dto.CreateApiKeyRequest;
 import com.secureauth.entities.ApiKey;
 import com.secureauth.entities.User;
@@ -8,34 +9,88 @@ import com.secureauth.exceptions.BadRequestException;
 import com.secureauth.exceptions.ResourceNotFoundException;
 import com.secureauth.repositories.ApiKeyRepository;
 import com.secureauth.repositories.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.secureauth.utils.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ApiKeyService {
 
     private final ApiKeyRepository apiKeyRepository;
     private final UserRepository userRepository;
     private final AuditService auditService;
+    private final ApiKeyUsageTracker apiKeyUsageTracker;
+    private final CleanupJobExecutor cleanupJobExecutor;
+    private final JobLeaseManager jobLeaseManager;
+    private final ClusterCacheInvalidator clusterInvalidator;
+
+    // Clés vérifiées, indexées par hash SHA-256 (métadonnées actif/expiration + propriétaire)
+    // Les révocations sont propagées aux autres instances au commit (ClusterCacheInvalidator) ;
+    // le TTL (security.api-key-cache.ttl) ne borne plus que le cas d'une notification perdue,
+    // et l'expiration est revérifiée à chaque appel
+    private final BoundedTtlCache<String, VerifiedApiKey> verifiedKeys;
+
+    private static final String CACHE_NAME = "api-keys";
+    private static final String USER_CACHE_NAME = "api-keys-by-user";
 
     private static final String API_KEY_PREFIX = "sk_";
     private static final int API_KEY_LENGTH = 32;
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
 
+    private static final long CLEANUP_LEASE_AT_MOST = 60 * 60_000L;
+    private static final long CLEANUP_LEASE_AT_LEAST = 12 * 60 * 60_000L;
+
+    private static final String REVOKE_EXPIRED_KEYS =
+            "UPDATE api_keys SET active = false WHERE id IN (" +
+            "SELECT id FROM api_keys WHERE active = true AND expires_at < ? " +
+            "LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING key_hash";
+
+    public ApiKeyService(ApiKeyRepository apiKeyRepository,
+                         UserRepository userRepository,
+                         AuditService auditService,
+                         ApiKeyUsageTracker apiKeyUsageTracker,
+                         CleanupJobExecutor cleanupJobExecutor,
+                         JobLeaseManager jobLeaseManager,
+                         ClusterCacheInvalidator clusterInvalidator,
+                         @Value("${security.api-key-cache.max-size:10000}") int cacheMaxSize,
+                         @Value("${security.api-key-cache.ttl:30000}") long cacheTtlMillis) {
+        this.apiKeyRepository = apiKeyRepository;
+        this.userRepository = userRepository;
+        this.auditService = auditService;
+        this.apiKeyUsageTracker = apiKeyUsageTracker;
+        this.cleanupJobExecutor = cleanupJobExecutor;
+        this.jobLeaseManager = jobLeaseManager;
+        this.clusterInvalidator = clusterInvalidator;
+        this.verifiedKeys = new BoundedTtlCache<>(cacheMaxSize, cacheTtlMillis);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        clusterInvalidator.subscribe(CACHE_NAME, verifiedKeys::invalidate, verifiedKeys::invalidateAll);
+        clusterInvalidator.subscribe(USER_CACHE_NAME,
+                userId -> invalidateUserKeys(Long.valueOf(userId)), verifiedKeys::invalidateAll);
+    }
+
     @Transactional
     public ApiKeyResponse createApiKey(String username, CreateApiKeyRequest request) {
         User user = userRepository.findByUsername(username)
@@ -107,6 +162,7 @@ public class ApiKeyService {
 
         apiKey.revoke();
         apiKeyRepository.save(apiKey);
+        evictKey(apiKey.getKeyHash());
 
         auditService.logAction("API_KEY_REVOKED", username, 
                 "API key revoked: " + apiKey.getName(), true);
@@ -114,51 +170,83 @@ public class ApiKeyService {
         log.info("API key revoked: {} for user: {}", apiKey.getName(), username);
     }
 
-    @Transactional
-    public boolean validateApiKey(String apiKey) {
+    /**
+     * Vérifie une clé API et retourne la clé avec son propriétaire
+     * Un seul hash SHA-256 par appel ; la base n'est interrogée qu'en cas d'absence du cache
+     */
+    public Optional<VerifiedApiKey> authenticate(String apiKey) {
         String keyHash = hashApiKey(apiKey);
 
-        return apiKeyRepository.findByKeyHash(keyHash)
-                .map(key -> {
-                    if (!key.getActive()) {
-                        return false;
-                    }
-                    if (key.isExpired()) {
-                        return false;
-                    }
-                    // Update last used timestamp
-                    key.updateLastUsed();
-                    apiKeyRepository.save(key);
-                    return true;
-                })
-                .orElse(false);
-    }
-
-    public User getUserByApiKey(String apiKey) {
-        String keyHash = hashApiKey(apiKey);
+        VerifiedApiKey verified = verifiedKeys.get(keyHash, hash -> apiKeyRepository.findByKeyHashWithUser(hash)
+                .filter(ApiKey::getActive)
+                .map(key -> new VerifiedApiKey(key.getId(), key.getUser().getId(),
+                        key.getUser().getUsername(), key.getExpiresAt()))
+                .orElse(null));
+
+        if (verified == null) {
+            return Optional.empty();
+        }
+        if (verified.isExpired()) {
+            verifiedKeys.invalidate(keyHash);
+            return Optional.empty();
+        }
 
-        return apiKeyRepository.findByKeyHashWithUser(keyHash)
-                .filter(key -> key.getActive() && !key.isExpired())
-                .map(ApiKey::getUser)
-                .orElse(null);
+        // Date de dernière utilisation écrite en différé (voir ApiKeyUsageTracker)
+        apiKeyUsageTracker.recordUsage(verified.getKeyId());
+        return Optional.of(verified);
     }
 
-    @Scheduled(cron = "0 0 2 * * ?") // Run daily at 2 AM
-    @Transactional
-    public void cleanupExpiredApiKeys() {
-        List<ApiKey> expiredKeys = apiKeyRepository
-                .findByExpiresAtBeforeAndActiveTrue(LocalDateTime.now());
+    /**
+     * Invalide les clés en cache d'un utilisateur (suppression du compte), sur toutes les instances
+     */
+    public void evictUserKeys(Long userId) {
+        invalidateUserKeys(userId);
+        afterCommit(() -> invalidateUserKeys(userId));
+        clusterInvalidator.publish(USER_CACHE_NAME, String.valueOf(userId));
+    }
+
+    /**
+     * Invalide une clé immédiatement, puis à nouveau après le commit
+     * pour ne pas laisser une vérification concurrente réinsérer l'état d'avant le commit ;
+     * les autres instances l'invalident à la réception du commit
+     */
+    private void evictKey(String keyHash) {
+        verifiedKeys.invalidate(keyHash);
+        afterCommit(() -> verifiedKeys.invalidate(keyHash));
+        clusterInvalidator.publish(CACHE_NAME, keyHash);
+    }
 
-        expiredKeys.forEach(key -> {
-            key.revoke();
-            apiKeyRepository.save(key);
-        });
+    private void invalidateUserKeys(Long userId) {
+        verifiedKeys.invalidateIf(key -> key.getUserId().equals(userId));
+    }
 
-        if (!expiredKeys.isEmpty()) {
-            log.info("Revoked {} expired API keys", expiredKeys.size());
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
         }
     }
 
+    /**
+     * Statistiques du cache des clés vérifiées
+     */
+    public CacheStatsResponse getCacheStats() {
+        return CacheStatsResponse.of(CACHE_NAME, verifiedKeys);
+    }
+
+    @Scheduled(cron = "0 0 2 * * ?") // Run daily at 2 AM
+    public void cleanupExpiredApiKeys() {
+        // Une seule instance du cluster par jour ; inutile de notifier les autres instances :
+        // ces clés sont déjà expirées et authenticate() revérifie l'expiration à chaque appel
+        jobLeaseManager.runExclusively("cleanup-expired-api-keys", CLEANUP_LEASE_AT_MOST, CLEANUP_LEASE_AT_LEAST,
+                () -> cleanupJobExecutor.updateReturning("expired-api-keys", REVOKE_EXPIRED_KEYS,
+                        verifiedKeys::invalidate, Timestamp.valueOf(LocalDateTime.now())));
+    }
+
     private String generateApiKey() {
         byte[] randomBytes = new byte[API_KEY_LENGTH];
         SECURE_RANDOM.nextBytes(randomBytes);
@@ -176,6 +264,22 @@ public class ApiKeyService {
         }
     }
 
+    /**
+     * Clé API vérifiée (instantané immuable mis en cache)
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class VerifiedApiKey {
+        private final Long keyId;
+        private final Long userId;
+        private final String username;
+        private final LocalDateTime expiresAt;
+
+        public boolean isExpired() {
+            return expiresAt != null && LocalDateTime.now().isAfter(expiresAt);
+        }
+    }
+
     private ApiKeyResponse mapToResponse(ApiKey apiKey) {
         return ApiKeyResponse.builder()
                 .id(apiKey.getId())
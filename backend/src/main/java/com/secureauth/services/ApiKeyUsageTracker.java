@@ -0,0 +1,86 @@
+package com.secureauth.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enregistrement différé (write-behind) de ApiKey.lastUsedAt
+ * Les utilisations sont regroupées en mémoire par clé puis écrites en un seul batch JDBC.
+ * Précision : lastUsedAt peut avoir jusqu'à un intervalle de flush de retard, et les
+ * utilisations non flushées sont perdues en cas d'arrêt brutal (un arrêt normal les flush).
+ */
+@Component
+@Slf4j
+public class ApiKeyUsageTracker {
+
+    private static final String UPDATE_LAST_USED =
+            "UPDATE api_keys SET last_used_at = ? WHERE id = ? AND (last_used_at IS NULL OR last_used_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public ApiKeyUsageTracker(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Note l'utilisation d'une clé (fusionnée avec les utilisations en attente)
+     */
+    public void recordUsage(Long apiKeyId) {
+        LocalDateTime now = LocalDateTime.now();
+        pending.merge(apiKeyId, now, (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    /**
+     * Écrit les dates d'utilisation en attente en un seul batch
+     */
+    @Scheduled(fixedDelayString = "${security.api-key-usage.flush-interval:30000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(pending.size());
+        for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+            // remove(key, value) : une utilisation plus récente arrivée entre-temps reste en attente
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                Timestamp lastUsed = Timestamp.valueOf(entry.getValue());
+                batch.add(new Object[]{lastUsed, entry.getKey(), lastUsed});
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_USED, batch);
+            log.debug("Flushed lastUsedAt for {} API keys", batch.size());
+        } catch (Exception e) {
+            // Réinjecte les valeurs pour le prochain flush
+            for (Object[] row : batch) {
+                pending.merge((Long) row[1], ((Timestamp) row[0]).toLocalDateTime(),
+                        (previous, current) -> current.isAfter(previous) ? current : previous);
+            }
+            log.error("Error flushing API key usage, {} keys kept pending", batch.size(), e);
+        }
+    }
+
+    /**
+     * Flush final à l'arrêt de l'application
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+}
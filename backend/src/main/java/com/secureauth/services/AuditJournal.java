@@ -0,0 +1,391 @@
+package com.secureauth.services;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.secureauth.entities.AuditLog;
+import com.secureauth.repositories.AuditLogRepository;
+import com.secureauth.utils.DataAccessFailures;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal local des événements d'audit non persistés (base lente ou indisponible)
+ * Segments de taille fixe mappés en mémoire, en ajout seul, enregistrements contrôlés par CRC32.
+ * Un rejeu périodique recharge les segments scellés dans audit_logs dès que la base répond.
+ *
+ * Format d'un enregistrement : [longueur int][crc32 int][JSON UTF-8]. Une longueur à 0 marque
+ * la fin des données écrites (le fichier est pré-alloué à zéro).
+ *
+ * Rejeu :
+ * - le nombre d'enregistrements déjà traités est noté après chaque lot validé (fichier .offset) :
+ *   un échec au lot N ne réinsère jamais les lots 0..N-1 ; seul un arrêt brutal entre le commit
+ *   et l'écriture de l'offset peut rejouer le dernier lot ;
+ * - base indisponible (échec transitoire) : le rejeu s'arrête et reprend au même offset ;
+ * - lot rejeté pour ses données : il est retenté ligne par ligne et les lignes refusées partent en
+ *   quarantaine (quarantine.ndjson), sans bloquer les segments suivants.
+ */
+@Component
+@Slf4j
+public class AuditJournal {
+
+    private static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String DONE_SUFFIX = ".done";
+    private static final String OFFSET_SUFFIX = ".offset";
+    private static final String QUARANTINE_FILE = "quarantine.ndjson";
+
+    private final AuditLogRepository auditLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final int replayBatchSize;
+
+    private final LongAdder journaled = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder corrupted = new LongAdder();
+    private final LongAdder quarantined = new LongAdder();
+
+    private long nextSegmentNumber;
+    private Path activeSegment;
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+
+    public AuditJournal(
+            AuditLogRepository auditLogRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${security.audit.journal.dir:audit-journal}") String directory,
+            @Value("${security.audit.journal.segment-size:16777216}") int segmentSize,
+            @Value("${security.audit.journal.fsync:true}") boolean fsync,
+            @Value("${security.audit.journal.replay-batch-size:500}") int replayBatchSize) {
+        this.auditLogRepository = auditLogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        this.replayBatchSize = replayBatchSize;
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+        // Les segments d'une exécution précédente sont scellés ; on reprend après le dernier numéro
+        nextSegmentNumber = listSegments().stream()
+                .mapToLong(AuditJournal::segmentNumber)
+                .max()
+                .orElse(0) + 1;
+    }
+
+    /**
+     * Ajoute des événements au journal ; retourne false si l'écriture locale a échoué
+     */
+    public synchronized boolean append(List<AuditLog> events) {
+        try {
+            for (AuditLog event : events) {
+                event.setId(null);
+                byte[] payload = objectMapper.writeValueAsBytes(event);
+                int recordSize = HEADER_SIZE + payload.length;
+                if (recordSize + HEADER_SIZE > segmentSize) {
+                    log.error("Audit event too large for journal segment ({} bytes), skipped", payload.length);
+                    corrupted.increment();
+                    continue;
+                }
+                // Garde toujours la place d'un en-tête vide pour marquer la fin du segment
+                if (activeBuffer == null || activeBuffer.remaining() < recordSize + HEADER_SIZE) {
+                    rollSegment();
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                activeBuffer.putInt(payload.length);
+                activeBuffer.putInt((int) crc.getValue());
+                activeBuffer.put(payload);
+                journaled.increment();
+            }
+            if (fsync && activeBuffer != null) {
+                activeBuffer.force();
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("Error appending {} audit events to journal {}", events.size(), directory, e);
+            return false;
+        }
+    }
+
+    /**
+     * Recharge les segments en attente dans audit_logs, du plus ancien au plus récent
+     * S'arrête au premier échec transitoire (la base est encore indisponible)
+     */
+    @Scheduled(fixedDelayString = "${security.audit.journal.replay-interval:30000}")
+    public void replay() {
+        try {
+            List<Path> sealed;
+            synchronized (this) {
+                if (activeBuffer != null && activeBuffer.position() > 0) {
+                    sealActiveSegment();
+                }
+                // Instantané sous verrou : seuls les segments scellés sont rejoués
+                Path active = activeSegment;
+                sealed = listSegments().stream()
+                        .filter(segment -> !segment.equals(active))
+                        .toList();
+            }
+
+            for (Path segment : sealed) {
+                if (!replaySegment(segment)) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error listing audit journal segments in {}", directory, e);
+        }
+    }
+
+    private boolean replaySegment(Path segment) throws IOException {
+        Path doneMarker = segment.resolveSibling(segment.getFileName() + DONE_SUFFIX);
+        Path offsetFile = segment.resolveSibling(segment.getFileName() + OFFSET_SUFFIX);
+        if (Files.exists(doneMarker)) {
+            deleteSegment(segment, doneMarker, offsetFile);
+            return true;
+        }
+
+        List<AuditLog> events = readSegment(segment);
+        int offset = Math.min(readOffset(offsetFile), events.size());
+        int loaded = 0;
+        while (offset < events.size()) {
+            List<AuditLog> batch = events.subList(offset, Math.min(offset + replayBatchSize, events.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> auditLogRepository.saveAll(batch));
+                loaded += batch.size();
+                replayed.add(batch.size());
+                offset += batch.size();
+            } catch (Exception e) {
+                if (DataAccessFailures.isTransient(e)) {
+                    log.warn("Audit journal replay postponed, database unavailable: {}", e.getMessage());
+                    return false;
+                }
+                log.warn("Audit journal batch rejected in {} ({}), retrying row by row",
+                        segment.getFileName(), e.getMessage());
+                for (AuditLog event : batch) {
+                    // Identifiant éventuellement attribué par la tentative annulée
+                    event.setId(null);
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> auditLogRepository.saveAll(List.of(event)));
+                        loaded++;
+                        replayed.increment();
+                    } catch (Exception rowFailure) {
+                        if (DataAccessFailures.isTransient(rowFailure)) {
+                            log.warn("Audit journal replay postponed, database unavailable: {}", rowFailure.getMessage());
+                            return false;
+                        }
+                        quarantine(event, rowFailure);
+                    }
+                    offset++;
+                    writeOffset(offsetFile, offset);
+                }
+                continue;
+            }
+            writeOffset(offsetFile, offset);
+        }
+
+        // Marque le segment comme rejoué avant suppression (la suppression d'un fichier mappé peut échouer)
+        Files.createFile(doneMarker);
+        log.info("Replayed {} audit events from {}", loaded, segment.getFileName());
+        deleteSegment(segment, doneMarker, offsetFile);
+        return true;
+    }
+
+    /**
+     * Met de côté un événement refusé par la base (une ligne JSON avec le motif du rejet)
+     * Le fichier est conservé pour examen et réinjection manuelle ; il n'est jamais rejoué automatiquement
+     */
+    public synchronized void quarantine(AuditLog event, Exception reason) {
+        quarantined.increment();
+        log.error("Audit event quarantined ({} - {}): {}", event.getUsername(), event.getAction(), reason.getMessage());
+        try {
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("reason", String.valueOf(reason.getMessage()));
+            record.put("event", event);
+            byte[] line = objectMapper.writeValueAsBytes(record);
+            try (FileChannel channel = FileChannel.open(directory.resolve(QUARANTINE_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                channel.write(ByteBuffer.wrap(line));
+                channel.write(ByteBuffer.wrap(new byte[]{'\n'}));
+                if (fsync) {
+                    channel.force(false);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error writing quarantined audit event ({} - {}) to {}",
+                    event.getUsername(), event.getAction(), directory, e);
+        }
+    }
+
+    /**
+     * Nombre d'enregistrements du segment déjà traités (validés ou mis en quarantaine)
+     */
+    private int readOffset(Path offsetFile) throws IOException {
+        if (!Files.exists(offsetFile)) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(Files.readString(offsetFile, StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            log.error("Unreadable audit journal offset {}, segment replayed from the start", offsetFile.getFileName());
+            return 0;
+        }
+    }
+
+    /**
+     * Écriture atomique de l'offset (fichier temporaire puis renommage)
+     */
+    private void writeOffset(Path offsetFile, int offset) throws IOException {
+        Path temp = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Integer.toString(offset).getBytes(StandardCharsets.UTF_8)));
+            if (fsync) {
+                channel.force(false);
+            }
+        }
+        Files.move(temp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lit les enregistrements valides d'un segment ; s'arrête au premier enregistrement vide ou corrompu
+     */
+    private List<AuditLog> readSegment(Path segment) throws IOException {
+        List<AuditLog> events = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != expectedCrc) {
+                corrupted.increment();
+                log.error("Corrupted audit journal record in {} at offset {}, rest of segment skipped",
+                        segment.getFileName(), buffer.position() - length - HEADER_SIZE);
+                break;
+            }
+            try {
+                events.add(objectMapper.readValue(new String(payload, StandardCharsets.UTF_8), AuditLog.class));
+            } catch (IOException e) {
+                corrupted.increment();
+                log.error("Unreadable audit journal record in {}: {}", segment.getFileName(), e.getMessage());
+            }
+        }
+        return events;
+    }
+
+    private void rollSegment() throws IOException {
+        sealActiveSegment();
+        activeSegment = directory.resolve(String.format("audit-%020d%s", nextSegmentNumber++, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(activeSegment,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private void sealActiveSegment() throws IOException {
+        if (activeChannel == null) {
+            return;
+        }
+        activeBuffer.force();
+        activeChannel.close();
+        activeChannel = null;
+        activeBuffer = null;
+        activeSegment = null;
+    }
+
+    private void deleteSegment(Path segment, Path doneMarker, Path offsetFile) {
+        try {
+            Files.deleteIfExists(offsetFile);
+            Files.deleteIfExists(segment);
+            Files.deleteIfExists(doneMarker);
+        } catch (IOException e) {
+            log.debug("Audit journal segment {} not deleted yet: {}", segment.getFileName(), e.getMessage());
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("audit-".length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        sealActiveSegment();
+    }
+
+    public long getJournaled() {
+        return journaled.sum();
+    }
+
+    public long getReplayed() {
+        return replayed.sum();
+    }
+
+    public long getCorrupted() {
+        return corrupted.sum();
+    }
+
+    public long getQuarantined() {
+        return quarantined.sum();
+    }
+
+    public int getPendingSegments() {
+        try {
+            return listSegments().size();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
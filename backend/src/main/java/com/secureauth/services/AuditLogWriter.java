@@ -0,0 +1,255 @@
+package com.secureauth.services;
+
+import com.secureauth.dto.AuditPipelineStatsResponse;
+import com.secureauth.entities.AuditLog;
+import com.secureauth.repositories.AuditLogRepository;
+import com.secureauth.utils.DataAccessFailures;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pipeline asynchrone d'écriture des logs d'audit
+ * Les événements sont capturés sur le thread de la requête, mis en file bornée,
+ * puis écrits par lots par un thread dédié (inserts JDBC en batch)
+ */
+@Component
+@Slf4j
+public class AuditLogWriter {
+
+    /**
+     * Comportement lorsque la file est pleine
+     */
+    public enum OverflowPolicy {
+        BLOCK,  // bloque l'appelant (au plus block-timeout ms) puis passe l'événement au journal local
+        DROP,   // abandonne l'événement et incrémente le compteur
+        SPILL   // écrit l'événement dans le journal local (AuditJournal)
+    }
+
+    private final AuditLogRepository auditLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditJournal auditJournal;
+
+    private final boolean asyncEnabled;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+    private final BlockingQueue<AuditLog> queue;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLogWriter(
+            AuditLogRepository auditLogRepository,
+            PlatformTransactionManager transactionManager,
+            AuditJournal auditJournal,
+            @Value("${security.audit.async.enabled:true}") boolean asyncEnabled,
+            @Value("${security.audit.async.queue-capacity:10000}") int queueCapacity,
+            @Value("${security.audit.async.batch-size:200}") int batchSize,
+            @Value("${security.audit.async.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+            @Value("${security.audit.async.block-timeout:100}") long blockTimeoutMillis) {
+        this.auditLogRepository = auditLogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Transaction propre : un échec d'écriture n'affecte jamais la transaction appelante
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.auditJournal = auditJournal;
+        this.asyncEnabled = asyncEnabled;
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!asyncEnabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Audit writer started (batch={}, overflow={})", batchSize, overflowPolicy);
+    }
+
+    /**
+     * Soumet un événement déjà capturé (IP, User-Agent et horodatage renseignés)
+     */
+    public void submit(AuditLog auditLog) {
+        fitColumns(auditLog);
+        if (!asyncEnabled) {
+            writeBatch(List.of(auditLog));
+            return;
+        }
+
+        if (queue.offer(auditLog)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(auditLog, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        // File toujours saturée (base lente ou indisponible) : pas d'écriture en base sur le
+                        // thread de la requête, l'événement part dans le journal (compté comme perdu sinon)
+                        spill(List.of(auditLog));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    spill(List.of(auditLog));
+                }
+            }
+            case DROP -> {
+                dropped.increment();
+                log.warn("Audit queue full, event dropped: {} - {}", auditLog.getUsername(), auditLog.getAction());
+            }
+            case SPILL -> spill(List.of(auditLog));
+        }
+    }
+
+    private void runLoop() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditLog first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Unexpected error in audit writer", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Écrit un lot dans une seule transaction
+     * - base indisponible (échec transitoire) : le lot part dans le journal local ;
+     * - lot rejeté pour ses données : retenté ligne par ligne, seules les lignes refusées vont en quarantaine
+     */
+    private void writeBatch(List<AuditLog> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> auditLogRepository.saveAll(batch));
+            written.add(batch.size());
+        } catch (Exception e) {
+            failedBatches.increment();
+            if (DataAccessFailures.isTransient(e)) {
+                log.error("Error writing audit batch of {} events, database unavailable", batch.size(), e);
+                spill(batch);
+                return;
+            }
+            log.warn("Audit batch of {} events rejected ({}), retrying row by row", batch.size(), e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                if (!writeOne(batch.get(i))) {
+                    // La base est tombée entre-temps : le reste du lot part dans le journal
+                    spill(batch.subList(i, batch.size()));
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Écrit un événement seul ; retourne false si la base est indisponible (événement non traité)
+     */
+    private boolean writeOne(AuditLog auditLog) {
+        // Identifiant éventuellement attribué par la tentative annulée
+        auditLog.setId(null);
+        try {
+            transactionTemplate.executeWithoutResult(status -> auditLogRepository.saveAll(List.of(auditLog)));
+            written.increment();
+            return true;
+        } catch (Exception e) {
+            if (DataAccessFailures.isTransient(e)) {
+                return false;
+            }
+            auditJournal.quarantine(auditLog, e);
+            return true;
+        }
+    }
+
+    /**
+     * Tronque les valeurs d'origine client (IP, User-Agent) et les libellés aux longueurs des colonnes :
+     * une valeur trop longue ferait rejeter la ligne
+     */
+    private static void fitColumns(AuditLog auditLog) {
+        auditLog.setUsername(truncate(auditLog.getUsername(), AuditLog.USERNAME_LENGTH));
+        auditLog.setAction(truncate(auditLog.getAction(), AuditLog.ACTION_LENGTH));
+        auditLog.setIpAddress(truncate(auditLog.getIpAddress(), AuditLog.IP_ADDRESS_LENGTH));
+        auditLog.setUserAgent(truncate(auditLog.getUserAgent(), AuditLog.USER_AGENT_LENGTH));
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * Ajoute les événements au journal local, rejoué dans audit_logs au retour de la base
+     */
+    private void spill(List<AuditLog> events) {
+        if (auditJournal.append(events)) {
+            spilled.add(events.size());
+        } else {
+            dropped.add(events.size());
+        }
+    }
+
+    /**
+     * Arrêt : vide la file avant la fermeture du contexte
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.join(10_000);
+        if (!queue.isEmpty()) {
+            List<AuditLog> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            writeBatch(remaining);
+        }
+        log.info("Audit writer stopped");
+    }
+
+    public AuditPipelineStatsResponse getStats() {
+        return AuditPipelineStatsResponse.builder()
+                .asyncEnabled(asyncEnabled)
+                .overflowPolicy(overflowPolicy.name())
+                .queueDepth(queue.size())
+                .queueCapacity(queue.size() + queue.remainingCapacity())
+                .written(written.sum())
+                .dropped(dropped.sum())
+                .spilled(spilled.sum())
+                .failedBatches(failedBatches.sum())
+                .journalPendingSegments(auditJournal.getPendingSegments())
+                .journalReplayed(auditJournal.getReplayed())
+                .journalCorrupted(auditJournal.getCorrupted())
+                .journalQuarantined(auditJournal.getQuarantined())
+                .build();
+    }
+}
@@ -0,0 +1,180 @@
+package com.secureauth.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gestion des partitions de audit_logs (partitionnement natif PostgreSQL par plage de dates)
+ * Crée les partitions futures à l'avance et détache celles hors rétention, sans DELETE massif.
+ * Par défaut une partition détachée est conservée (table autonome, à archiver puis supprimer
+ * manuellement) ; la suppression automatique (DROP) est un choix explicite :
+ * security.audit.partitions.drop-expired=true.
+ * Sans effet tant que la table n'est pas partitionnée (voir database/migration_audit_partitioning.sql).
+ */
+@Component
+@Slf4j
+public class AuditPartitionManager {
+
+    /**
+     * Granularité des partitions
+     */
+    public enum Interval {
+        DAY(ChronoUnit.DAYS, DateTimeFormatter.ofPattern("yyyyMMdd")),
+        MONTH(ChronoUnit.MONTHS, DateTimeFormatter.ofPattern("yyyyMM"));
+
+        private final ChronoUnit unit;
+        private final DateTimeFormatter suffixFormat;
+
+        Interval(ChronoUnit unit, DateTimeFormatter suffixFormat) {
+            this.unit = unit;
+            this.suffixFormat = suffixFormat;
+        }
+
+        private LocalDate startOf(LocalDate date) {
+            return this == MONTH ? date.withDayOfMonth(1) : date;
+        }
+    }
+
+    private static final String PARENT_TABLE = "audit_logs";
+    private static final long MAINTENANCE_LEASE_AT_MOST = 30 * 60_000L;
+    private static final Pattern PARTITION_NAME = Pattern.compile("^audit_logs_p(\\d{6}|\\d{8})$");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JobLeaseManager jobLeaseManager;
+    private final boolean enabled;
+    private final Interval interval;
+    private final int premake;
+    private final int retentionDays;
+    private final boolean dropExpired;
+
+    public AuditPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            JobLeaseManager jobLeaseManager,
+            @Value("${security.audit.partitions.enabled:true}") boolean enabled,
+            @Value("${security.audit.partitions.interval:MONTH}") Interval interval,
+            @Value("${security.audit.partitions.premake:3}") int premake,
+            @Value("${security.audit.retention-days:365}") int retentionDays,
+            @Value("${security.audit.partitions.drop-expired:false}") boolean dropExpired) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobLeaseManager = jobLeaseManager;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.premake = premake;
+        this.retentionDays = retentionDays;
+        this.dropExpired = dropExpired;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    /**
+     * Maintenance quotidienne : partitions à venir puis rétention
+     */
+    @Scheduled(cron = "${security.audit.partitions.cron:0 15 0 * * ?}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        // DDL exécuté par une seule instance à la fois (démarrages simultanés, cron commun)
+        jobLeaseManager.runExclusively("audit-partitions", MAINTENANCE_LEASE_AT_MOST, 0, () -> {
+            try {
+                if (!isPartitioned()) {
+                    log.debug("audit_logs is not partitioned, partition maintenance skipped");
+                    return;
+                }
+                createUpcomingPartitions();
+                applyRetention();
+            } catch (Exception e) {
+                log.error("Error maintaining audit_logs partitions", e);
+            }
+        });
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+                "WHERE c.relname = ? AND c.relnamespace = to_regnamespace(current_schema())::oid",
+                Integer.class, PARENT_TABLE);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Crée la partition courante et les "premake" suivantes (idempotent)
+     */
+    private void createUpcomingPartitions() {
+        LocalDate start = interval.startOf(LocalDate.now());
+        for (int i = 0; i <= premake; i++) {
+            LocalDate from = start.plus(i, interval.unit);
+            LocalDate to = from.plus(1, interval.unit);
+            String name = PARENT_TABLE + "_p" + from.format(interval.suffixFormat);
+            try {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        name, PARENT_TABLE, from, to));
+            } catch (Exception e) {
+                // Typiquement : des lignes de cette plage sont déjà dans la partition par défaut
+                log.error("Could not create audit partition {} [{} - {}): {}", name, from, to, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Détache les partitions entièrement antérieures à la rétention ; DROP uniquement si drop-expired=true
+     */
+    private void applyRetention() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ? AND p.relnamespace = to_regnamespace(current_schema())::oid",
+                String.class, PARENT_TABLE);
+
+        for (String partition : partitions) {
+            LocalDate upperBound = upperBoundOf(partition);
+            if (upperBound == null || upperBound.isAfter(cutoff)) {
+                continue;
+            }
+            jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", PARENT_TABLE, partition));
+            if (dropExpired) {
+                jdbcTemplate.execute(String.format("DROP TABLE %s", partition));
+                log.info("Dropped expired audit partition {} (before {})", partition, upperBound);
+            } else {
+                log.info("Detached expired audit partition {} for archiving (before {})", partition, upperBound);
+            }
+        }
+    }
+
+    /**
+     * Borne haute (exclue) d'une partition d'après son nom ; null pour les autres tables (ex. défaut)
+     */
+    private LocalDate upperBoundOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String suffix = matcher.group(1);
+        if (suffix.length() == 6) {
+            return LocalDate.parse(suffix + "01", DateTimeFormatter.BASIC_ISO_DATE).plusMonths(1);
+        }
+        return LocalDate.parse(suffix, DateTimeFormatter.BASIC_ISO_DATE).plusDays(1);
+    }
+}
@@ -1,12 +1,22 @@
 package com.secureauth.services;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.secureauth.dto.AuditExportRequest;
+import com.secureauth.dto.AuditLogPageResponse;
 import com.secureauth.dto.AuditLogResponse;
 import com.secureauth.entities.AuditLog;
+import com.secureauth.exceptions.InvalidOperationException;
 import com.secureauth.repositories.AuditLogRepository;
+import com.secureauth.utils.AuditColumnarWriter;
+import com.secureauth.utils.AuditLogCursor;
 import com.secureauth.utils.NetworkUtils;
+import jakarta.persistence.EntityManager;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -14,9 +24,18 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Service de gestion de l'audit
@@ -28,11 +47,19 @@ import java.util.stream.Collectors;
 public class AuditService {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final EntityManager entityManager;
+
+    private static final int COLUMNAR_BLOCK_SIZE = 4096;
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private final ObjectMapper exportMapper = new ObjectMapper().registerModule(new JavaTimeModule());
 
     /**
      * Enregistre une action dans l'audit log
+     * L'événement est capturé ici (thread de la requête) puis écrit de façon asynchrone
      */
-    @Transactional
     public void logAction(String username, String action, String details, boolean success) {
         try {
             HttpServletRequest request = getCurrentRequest();
@@ -44,9 +71,10 @@ public class AuditService {
                     .success(success)
                     .ipAddress(request != null ? NetworkUtils.getClientIpAddress(request) : "Unknown")
                     .userAgent(request != null ? request.getHeader("User-Agent") : null)
+                    .timestamp(LocalDateTime.now())
                     .build();
             
-            auditLogRepository.save(auditLog);
+            auditLogWriter.submit(auditLog);
             log.info("Audit log created: {} - {} - {}", username, action, success);
         } catch (Exception e) {
             log.error("Error creating audit log", e);
@@ -73,9 +101,10 @@ public class AuditService {
                 .errorMessage(errorMessage)
                 .ipAddress(request != null ? NetworkUtils.getClientIpAddress(request) : "Unknown")
                 .userAgent(request != null ? request.getHeader("User-Agent") : null)
+                .timestamp(LocalDateTime.now())
                 .build();
         
-        auditLogRepository.save(auditLog);
+        auditLogWriter.submit(auditLog);
         log.warn("Audit log failure: {} - {} - {}", username, action, errorMessage);
     }
 
@@ -114,10 +143,63 @@ public class AuditService {
             LocalDateTime endDate,
             Pageable pageable) {
         
-        return auditLogRepository.findByFilters(username, action, success, startDate, endDate, pageable)
+        return auditLogRepository.findByFilters(username, action, success,
+                        lowerBound(startDate), upperBound(endDate), pageable)
                 .map(this::mapToResponse);
     }
 
+    /**
+     * Recherche les logs par curseur (keyset sur timestamp, id), du plus récent au plus ancien
+     * Une ligne supplémentaire est lue pour savoir s'il existe une page suivante
+     */
+    public AuditLogPageResponse getLogsAfterCursor(
+            String username,
+            String action,
+            Boolean success,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String cursor,
+            int size) {
+
+        AuditLogCursor position;
+        try {
+            position = AuditLogCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOperationException("Curseur de pagination invalide");
+        }
+
+        List<AuditLog> logs = auditLogRepository.findPageBefore(
+                username, action, success, lowerBound(startDate), upperBound(endDate),
+                position.getTimestamp(), position.getId(), Limit.of(size + 1));
+
+        boolean hasNext = logs.size() > size;
+        List<AuditLog> page = hasNext ? logs.subList(0, size) : logs;
+
+        String nextCursor = null;
+        if (hasNext) {
+            AuditLog last = page.get(page.size() - 1);
+            nextCursor = new AuditLogCursor(last.getTimestamp(), last.getId()).encode();
+        }
+
+        return AuditLogPageResponse.builder()
+                .content(page.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .size(page.size())
+                .build();
+    }
+
+    /**
+     * Bornes par défaut des recherches : le prédicat de date reste simple,
+     * ce qui permet à PostgreSQL d'élaguer les partitions de audit_logs
+     */
+    private LocalDateTime lowerBound(LocalDateTime startDate) {
+        return startDate != null ? startDate : MIN_TIMESTAMP;
+    }
+
+    private LocalDateTime upperBound(LocalDateTime endDate) {
+        return endDate != null ? endDate : MAX_TIMESTAMP;
+    }
+
     /**
      * Récupère les derniers logs d'un utilisateur
      */
@@ -211,85 +293,108 @@ public class AuditService {
     }
 
     /**
-     * Exporte le rapport d'audit en JSON ou CSV
+     * Exporte le rapport d'audit (JSON, CSV, NDJSON gzip ou colonnaire) directement dans le flux de sortie
+     * Les lignes sont lues par curseur et détachées une à une : mémoire constante quelle que soit la période
      */
-    public byte[] exportAuditReport(com.secureauth.dto.AuditExportRequest request) {
-        LocalDateTime start = request.getStartDate() != null ? 
+    @Transactional(readOnly = true)
+    public void exportAuditReport(AuditExportRequest request, OutputStream out) throws IOException {
+        LocalDateTime start = request.getStartDate() != null ?
                 request.getStartDate() : LocalDateTime.now().minusDays(30);
-        LocalDateTime end = request.getEndDate() != null ? 
+        LocalDateTime end = request.getEndDate() != null ?
                 request.getEndDate() : LocalDateTime.now();
 
-        List<AuditLog> logs = auditLogRepository.findAllByTimestampBetween(start, end);
-
-        // Filtrer par action si spécifié
-        if (request.getAction() != null && !request.getAction().isEmpty()) {
-            logs = logs.stream()
-                    .filter(log -> log.getAction().contains(request.getAction()))
-                    .collect(Collectors.toList());
-        }
-
-        // Filtrer par username si spécifié
-        if (request.getUsername() != null && !request.getUsername().isEmpty()) {
-            logs = logs.stream()
-                    .filter(log -> log.getUsername().contains(request.getUsername()))
-                    .collect(Collectors.toList());
-        }
+        try (Stream<AuditLog> logs = auditLogRepository.streamForExport(
+                start, end,
+                containsPattern(request.getAction()),
+                containsPattern(request.getUsername()),
+                containsPattern(request.getIpAddress()))) {
 
-        // Filtrer par IP si spécifié
-        if (request.getIpAddress() != null && !request.getIpAddress().isEmpty()) {
-            logs = logs.stream()
-                    .filter(log -> log.getIpAddress() != null && 
-                            log.getIpAddress().contains(request.getIpAddress()))
-                    .collect(Collectors.toList());
+            switch (AuditExportRequest.Format.from(request.getFormat())) {
+                case CSV -> exportToCsv(logs, out);
+                case NDJSON_GZIP -> exportToNdjsonGzip(logs, out);
+                case COLUMNAR -> exportToColumnar(logs, out);
+                default -> exportToJson(logs, out);
+            }
         }
+    }
 
-        // Génère le contenu
-        if ("CSV".equalsIgnoreCase(request.getFormat())) {
-            return exportToCsv(logs);
-        } else {
-            return exportToJson(logs);
+    /**
+     * Motif LIKE équivalent à String.contains, ou null si le filtre est vide
+     */
+    private String containsPattern(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
         }
+        String escaped = value
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
     }
 
-    private byte[] exportToCsv(List<AuditLog> logs) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Username,Action,IP Address,Details,Success,Timestamp\n");
+    private void exportToCsv(Stream<AuditLog> logs, OutputStream out) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write("ID,Username,Action,IP Address,Details,Success,Timestamp\n");
 
-        for (AuditLog log : logs) {
-            csv.append(log.getId()).append(",")
+        Iterator<AuditLog> it = logs.iterator();
+        while (it.hasNext()) {
+            AuditLog log = it.next();
+            csv.append(String.valueOf(log.getId())).append(",")
                .append(log.getUsername()).append(",")
                .append(log.getAction()).append(",")
                .append(log.getIpAddress() != null ? log.getIpAddress() : "").append(",")
                .append("\"").append(log.getDetails() != null ? log.getDetails().replace("\"", "\"\"") : "").append("\",")
-               .append(log.getSuccess()).append(",")
-               .append(log.getTimestamp()).append("\n");
+               .append(String.valueOf(log.getSuccess())).append(",")
+               .append(String.valueOf(log.getTimestamp())).append("\n");
+            entityManager.detach(log);
         }
+        csv.flush();
+    }
 
-        return csv.toString().getBytes();
+    private void exportToJson(Stream<AuditLog> logs, OutputStream out) throws IOException {
+        try (JsonGenerator json = exportMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartArray();
+            Iterator<AuditLog> it = logs.iterator();
+            while (it.hasNext()) {
+                AuditLog log = it.next();
+                json.writeObject(mapToResponse(log));
+                entityManager.detach(log);
+            }
+            json.writeEndArray();
+        }
     }
 
-    private byte[] exportToJson(List<AuditLog> logs) {
-        List<AuditLogResponse> responses = logs.stream()
-                .map(log -> AuditLogResponse.builder()
-                        .id(log.getId())
-                        .username(log.getUsername())
-                        .action(log.getAction())
-                        .ipAddress(log.getIpAddress())
-                        .details(log.getDetails())
-                        .userAgent(log.getUserAgent())
-                        .success(log.getSuccess())
-                        .errorMessage(log.getErrorMessage())
-                        .timestamp(log.getTimestamp())
-                        .build())
-                .collect(Collectors.toList());
+    /**
+     * Une ligne JSON par événement, compressée en gzip
+     */
+    private void exportToNdjsonGzip(Stream<AuditLog> logs, OutputStream out) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+        try (JsonGenerator json = exportMapper.getFactory().createGenerator(gzip)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+            Iterator<AuditLog> it = logs.iterator();
+            while (it.hasNext()) {
+                AuditLog log = it.next();
+                json.writeObject(mapToResponse(log));
+                json.writeRaw('\n');
+                entityManager.detach(log);
+            }
+        }
+        gzip.finish();
+    }
 
-        try {
-            com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            mapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            return mapper.writeValueAsBytes(responses);
-        } catch (Exception e) {
-            log.error("Error exporting to JSON", e);
-            return "[]".getBytes();
+    /**
+     * Format binaire colonnaire (voir AuditColumnarWriter)
+     */
+    private void exportToColumnar(Stream<AuditLog> logs, OutputStream out) throws IOException {
+        try (AuditColumnarWriter columnar = new AuditColumnarWriter(out, COLUMNAR_BLOCK_SIZE)) {
+            Iterator<AuditLog> it = logs.iterator();
+            while (it.hasNext()) {
+                AuditLog log = it.next();
+                columnar.write(log);
+                entityManager.detach(log);
+            }
         }
     }
 }
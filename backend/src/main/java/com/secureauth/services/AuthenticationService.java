@@ -1,6 +1,7 @@
 package com.secureauth.services;
 
 import com.secureauth.config.JwtService;
+import com.secureauth.config.TokenClaims;
 import com.secureauth.dto.AuthenticationResponse;
 import com.secureauth.dto.LoginRequest;
 import com.secureauth.dto.RefreshTokenRequest;
@@ -12,15 +13,23 @@ import com.secureauth.exceptions.AuthenticationException;
 import com.secureauth.exceptions.ResourceNotFoundException;
 import com.secureauth.repositories.RefreshTokenRepository;
 import com.secureauth.repositories.UserRepository;
+import com.secureauth.utils.TokenHasher;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.LockedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.security.SecureRandom;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -34,11 +43,27 @@ public class AuthenticationService {
 
     private final UserRepository userRepository;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final CleanupJobExecutor cleanupJobExecutor;
+    private final JobLeaseManager jobLeaseManager;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuditService auditService;
     private final TwoFactorAuthenticationService twoFactorService;
     private final SessionManagementService sessionManagementService;
+    private final UserCacheService userCacheService;
+    private final SecurityAlertEngine securityAlertEngine;
+    private final LoginThrottleService loginThrottleService;
+
+    private static final int REFRESH_TOKEN_BYTES = 32;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private static final long PURGE_LEASE_AT_MOST = 30 * 60_000L;
+    private static final long PURGE_LEASE_AT_LEAST = 55 * 60_000L;
+
+    private static final String DELETE_EXPIRED_REFRESH_TOKENS =
+            "DELETE FROM refresh_tokens WHERE id IN (" +
+            "SELECT id FROM refresh_tokens WHERE expiry_date < ? " +
+            "LIMIT ? FOR UPDATE SKIP LOCKED)";
 
     @Value("${security.max-login-attempts}")
     private int maxLoginAttempts;
@@ -46,11 +71,18 @@ public class AuthenticationService {
     @Value("${security.account-lock-duration}")
     private long accountLockDuration;
 
+    // Délai pendant lequel un refresh token déjà renouvelé reste accepté (onglets multiples)
+    @Value("${security.refresh-token.reuse-grace:10000}")
+    private long reuseGraceMillis;
+
     /**
      * Authentifie un utilisateur et retourne les tokens JWT
      */
     @Transactional(noRollbackFor = {AuthenticationException.class, LockedException.class})
     public AuthenticationResponse login(LoginRequest request, String ipAddress, String userAgent) {
+        // Limitation de débit avant toute requête et tout calcul BCrypt
+        loginThrottleService.checkAllowed(request.getUsername(), ipAddress);
+
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> {
                     auditService.logFailure(request.getUsername(), AuditLog.Action.LOGIN_FAILED, 
@@ -64,6 +96,8 @@ public class AuthenticationService {
             if (accountLockDuration > 0 && user.isLockExpired(accountLockDuration)) {
                 user.unlock();
                 userRepository.saveAndFlush(user);
+                userCacheService.evict(user.getUsername());
+                securityAlertEngine.accountUnlocked(user.getUsername());
                 log.info("Account auto-unlocked: {}", user.getUsername());
             } else {
                 auditService.logFailure(user.getUsername(), AuditLog.Action.LOGIN_FAILED, 
@@ -96,6 +130,8 @@ public class AuthenticationService {
             if (user.getFailedLoginAttempts() >= maxLoginAttempts) {
                 user.lock();
                 userRepository.saveAndFlush(user);
+                userCacheService.evict(user.getUsername());
+                securityAlertEngine.accountLocked(user);
                 auditService.logFailure(user.getUsername(), AuditLog.Action.USER_LOCKED, 
                         "Compte verrouillé après " + maxLoginAttempts + " tentatives échouées");
                 log.warn("Account locked due to {} failed attempts: {}", maxLoginAttempts, user.getUsername());
@@ -114,7 +150,14 @@ public class AuthenticationService {
         }
 
         // Mot de passe correct - réinitialiser les tentatives échouées
+        loginThrottleService.onSuccess(request.getUsername(), ipAddress);
         user.resetFailedAttempts();
+        // Hash d'un ancien algorithme ou d'un coût inférieur : ré-encodé avec le mot de passe en clair disponible
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            userCacheService.evict(user.getUsername());
+            log.info("Password hash upgraded for user: {}", user.getUsername());
+        }
         userRepository.save(user);
 
             // Si l'utilisateur a la 2FA activée, on demande le code
@@ -138,10 +181,9 @@ public class AuthenticationService {
 
             // Génère les tokens
             String accessToken = jwtService.generateToken(user);
-            String refreshToken = jwtService.generateRefreshToken(user);
 
-            // Sauvegarde le refresh token
-            saveRefreshToken(user, refreshToken);
+            // Refresh token opaque, début d'une nouvelle famille
+            String refreshToken = issueRefreshToken(user, UUID.randomUUID(), newRefreshExpiry());
             
             // Crée une session utilisateur
             var session = sessionManagementService.createSession(user, ipAddress, userAgent);
@@ -166,8 +208,19 @@ public class AuthenticationService {
      */
     @Transactional
     public AuthenticationResponse verify2FALogin(String tempToken, String code, String ipAddress, String userAgent) {
-        // Extrait le username du token temporaire
-        String username = jwtService.extractUsername(tempToken);
+        // Vérifie le token temporaire une seule fois et extrait le username
+        TokenClaims claims;
+        try {
+            claims = jwtService.parseToken(tempToken);
+        } catch (JwtException e) {
+            throw new AuthenticationException("Token invalide");
+        }
+
+        if (!claims.isTemp()) {
+            throw new AuthenticationException("Token invalide");
+        }
+
+        String username = claims.getSubject();
         
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new AuthenticationException("Token invalide"));
@@ -186,9 +239,7 @@ public class AuthenticationService {
         userRepository.save(user);
 
         String accessToken = jwtService.generateToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
-
-        saveRefreshToken(user, refreshToken);
+        String refreshToken = issueRefreshToken(user, UUID.randomUUID(), newRefreshExpiry());
         
         // Crée une session utilisateur
         var session = sessionManagementService.createSession(user, ipAddress, userAgent);
@@ -209,30 +260,69 @@ public class AuthenticationService {
 
     /**
      * Rafraîchit l'access token avec un refresh token
+     * Le refresh token est à usage unique : il est remplacé par un nouveau token de la même famille.
+     * Un token déjà renouvelé peut être représenté pendant reuse-grace (plusieurs onglets, requêtes
+     * concurrentes) : le successeur déjà émis est marqué renouvelé à son tour et remplacé par un nouveau
+     * token. La famille reste une chaîne unique, avec un seul token actif : le successeur écarté,
+     * représenté après la fenêtre de grâce, est traité comme une réutilisation.
+     * Au-delà de reuse-grace, c'est une réutilisation (vol probable) : toute la famille est révoquée
+     * et l'événement audité.
+     * Un token révoqué explicitement (déconnexion, famille déjà révoquée) est simplement refusé.
+     * Un token émis avant un changement de droits ou de statut (User.tokenVersion incrémenté :
+     * verrouillage, désactivation, rôles) est refusé et sa famille révoquée : reconnexion requise.
      */
-    @Transactional
+    @Transactional(noRollbackFor = AuthenticationException.class)
     public AuthenticationResponse refreshToken(RefreshTokenRequest request) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(request.getRefreshToken())
+        RefreshToken refreshToken = refreshTokenRepository
+                .findByTokenHashWithUser(TokenHasher.sha256(request.getRefreshToken()))
                 .orElseThrow(() -> new AuthenticationException("Refresh token invalide"));
 
-        // Vérifie si le token est révoqué ou expiré
-        if (refreshToken.getRevoked()) {
-            throw new AuthenticationException("Refresh token révoqué");
-        }
-
         if (refreshToken.isExpired()) {
             refreshTokenRepository.delete(refreshToken);
             throw new AuthenticationException("Refresh token expiré");
         }
 
         User user = refreshToken.getUser();
+        if (refreshToken.getRevoked()) {
+            throw new AuthenticationException("Refresh token révoqué");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (refreshTokenRepository.markRotated(refreshToken.getId(), now) == 0) {
+            // Verrou sur le token représenté : deux représentations concurrentes sont traitées l'une après l'autre
+            refreshTokenRepository.lockById(refreshToken.getId());
+            // Déjà renouvelé (ou révoqué entre-temps) : relu en base, l'entité chargée peut être périmée
+            LocalDateTime rotatedAt = refreshTokenRepository.findRotatedAt(refreshToken.getId())
+                    .orElseThrow(() -> new AuthenticationException("Refresh token révoqué"));
+            if (rotatedAt.isBefore(now.minusNanos(reuseGraceMillis * 1_000_000))) {
+                int revoked = refreshTokenRepository.revokeFamily(refreshToken.getFamilyId(), now);
+                auditService.logFailure(user.getUsername(), AuditLog.Action.REFRESH_TOKEN_REUSED,
+                        "Réutilisation d'un refresh token - famille révoquée (" + revoked + " token(s) actif(s))");
+                log.warn("Refresh token reuse detected for user {}, family {} revoked",
+                        user.getUsername(), refreshToken.getFamilyId());
+                throw new AuthenticationException("Refresh token révoqué");
+            }
+            // Un seul token actif par famille : le successeur déjà émis est écarté avant d'en émettre un autre
+            int superseded = refreshTokenRepository.supersedeActive(refreshToken.getFamilyId(), now);
+            log.debug("Refresh token of family {} presented again within the grace window, {} successor(s) superseded",
+                    refreshToken.getFamilyId(), superseded);
+        }
+
+        if (!Objects.equals(refreshToken.getTokenVersion(), user.getTokenVersion())) {
+            refreshTokenRepository.revokeFamily(refreshToken.getFamilyId(), now);
+            log.info("Stale refresh token for user {} (version {} < {}), family {} revoked",
+                    user.getUsername(), refreshToken.getTokenVersion(), user.getTokenVersion(),
+                    refreshToken.getFamilyId());
+            throw new AuthenticationException("Droits ou statut du compte modifiés, veuillez vous reconnecter");
+        }
 
-        // Génère un nouveau access token
+        // Génère un nouveau access token et le refresh token suivant (même famille, même échéance)
         String newAccessToken = jwtService.generateToken(user);
+        String newRefreshToken = issueRefreshToken(user, refreshToken.getFamilyId(), refreshToken.getExpiryDate());
 
         return AuthenticationResponse.builder()
                 .accessToken(newAccessToken)
-                .refreshToken(request.getRefreshToken())
+                .refreshToken(newRefreshToken)
                 .tokenType("Bearer")
                 .expiresIn(3600L)
                 .user(mapToUserResponse(user))
@@ -247,26 +337,50 @@ public class AuthenticationService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
 
-        // Révoque tous les refresh tokens de l'utilisateur
-        refreshTokenRepository.findByUser(user).forEach(token -> {
-            token.revoke();
-            refreshTokenRepository.save(token);
-        });
+        // Révoque tous les refresh tokens de l'utilisateur (une seule requête)
+        refreshTokenRepository.revokeAllByUser(user, LocalDateTime.now());
 
         auditService.logSuccess(username, AuditLog.Action.LOGOUT, "Déconnexion réussie");
     }
 
     /**
-     * Sauvegarde un refresh token
+     * Purge les refresh tokens expirés (révoqués ou non), par lots, sur une seule instance du cluster
+     */
+    @Scheduled(fixedRateString = "${security.cleanup.refresh-tokens-interval:3600000}")
+    public void purgeExpiredRefreshTokens() {
+        jobLeaseManager.runExclusively("purge-expired-refresh-tokens", PURGE_LEASE_AT_MOST, PURGE_LEASE_AT_LEAST,
+                () -> cleanupJobExecutor.update("expired-refresh-tokens", DELETE_EXPIRED_REFRESH_TOKENS,
+                        Timestamp.valueOf(LocalDateTime.now())));
+    }
+
+    /**
+     * Crée et sauvegarde un refresh token opaque ; seule son empreinte est stockée
+     *
+     * @return le token en clair, transmis au client
      */
-    private void saveRefreshToken(User user, String token) {
+    private String issueRefreshToken(User user, UUID familyId, LocalDateTime expiryDate) {
+        byte[] randomBytes = new byte[REFRESH_TOKEN_BYTES];
+        SECURE_RANDOM.nextBytes(randomBytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+
         RefreshToken refreshToken = RefreshToken.builder()
-                .token(token)
+                .tokenHash(TokenHasher.sha256(token))
+                .familyId(familyId)
                 .user(user)
-                .expiryDate(LocalDateTime.now().plusNanos(jwtService.getRefreshExpiration() * 1_000_000))
+                .tokenVersion(user.getTokenVersion())
+                .expiryDate(expiryDate)
                 .build();
 
         refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    /**
+     * Échéance d'une nouvelle famille : la durée de vie est fixée à la connexion,
+     * les renouvellements ne la prolongent pas
+     */
+    private LocalDateTime newRefreshExpiry() {
+        return LocalDateTime.now().plusNanos(jwtService.getRefreshExpiration() * 1_000_000);
     }
 
     /**
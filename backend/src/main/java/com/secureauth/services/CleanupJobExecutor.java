@@ -0,0 +1,161 @@
+package com.secureauth.services;
+
+import com.secureauth.dto.CleanupJobStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Exécution des tâches de nettoyage par lots ensemblistes (UPDATE / DELETE ... WHERE id IN (SELECT ... LIMIT ?))
+ * - chaque lot est une transaction courte (auto-commit), sans chargement d'entités
+ * - pause entre les lots pour laisser la place au trafic applicatif
+ * - les requêtes réservent leurs lignes avec FOR UPDATE SKIP LOCKED : plusieurs instances
+ *   exécutant la même tâche traitent des lignes disjointes, sans attente ni double traitement
+ * Chaque exécution est journalisée (lignes touchées, durée) et exposée dans les métriques.
+ */
+@Component
+@Slf4j
+public class CleanupJobExecutor {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final int maxChunks;
+
+    private final Map<String, JobStats> stats = new ConcurrentHashMap<>();
+
+    public CleanupJobExecutor(
+            JdbcTemplate jdbcTemplate,
+            @Value("${security.cleanup.batch-size:1000}") int batchSize,
+            @Value("${security.cleanup.pause:100}") long pauseMillis,
+            @Value("${security.cleanup.max-chunks:10000}") int maxChunks) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.maxChunks = maxChunks;
+    }
+
+    /**
+     * Exécute une requête de mise à jour par lots jusqu'à épuisement
+     * La taille de lot est passée en dernier paramètre (LIMIT ?).
+     *
+     * @return nombre total de lignes touchées
+     */
+    public long update(String job, String sql, Object... params) {
+        Object[] args = withBatchSize(params);
+        return run(job, () -> jdbcTemplate.update(sql, args));
+    }
+
+    /**
+     * Idem pour une requête ... RETURNING d'une colonne : chaque valeur renvoyée est transmise à onRow
+     */
+    public long updateReturning(String job, String sql, Consumer<String> onRow, Object... params) {
+        Object[] args = withBatchSize(params);
+        return run(job, () -> {
+            List<String> rows = jdbcTemplate.queryForList(sql, String.class, args);
+            rows.forEach(onRow);
+            return rows.size();
+        });
+    }
+
+    private long run(String job, Chunk chunk) {
+        JobStats jobStats = stats.computeIfAbsent(job, JobStats::new);
+        long start = System.nanoTime();
+        long total = 0;
+        int chunks = 0;
+        boolean failed = false;
+        try {
+            while (true) {
+                int rows = chunk.execute();
+                total += rows;
+                chunks++;
+                // Lot incomplet : plus rien à traiter (ou lignes réservées par une autre instance)
+                if (rows < batchSize || chunks >= maxChunks) {
+                    break;
+                }
+                Thread.sleep(pauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Cleanup job {} interrupted after {} rows", job, total);
+        } catch (Exception e) {
+            failed = true;
+            log.error("Cleanup job {} failed after {} rows", job, total, e);
+        }
+
+        long duration = (System.nanoTime() - start) / 1_000_000;
+        jobStats.record(total, duration, chunks, failed);
+        if (total > 0 && !failed) {
+            log.info("Cleanup job {}: {} rows in {} chunk(s), {} ms", job, total, chunks, duration);
+        }
+        return total;
+    }
+
+    private Object[] withBatchSize(Object[] params) {
+        Object[] args = Arrays.copyOf(params, params.length + 1);
+        args[params.length] = batchSize;
+        return args;
+    }
+
+    public List<CleanupJobStatsResponse> getStats() {
+        List<CleanupJobStatsResponse> result = new ArrayList<>(stats.size());
+        for (JobStats jobStats : stats.values()) {
+            result.add(jobStats.toResponse());
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface Chunk {
+        int execute() throws Exception;
+    }
+
+    private static final class JobStats {
+        private final String job;
+        private LocalDateTime lastRunAt;
+        private long lastRows;
+        private long lastDurationMillis;
+        private int lastChunks;
+        private long totalRows;
+        private long runs;
+        private long failures;
+
+        private JobStats(String job) {
+            this.job = job;
+        }
+
+        private synchronized void record(long rows, long durationMillis, int chunks, boolean failed) {
+            lastRunAt = LocalDateTime.now();
+            lastRows = rows;
+            lastDurationMillis = durationMillis;
+            lastChunks = chunks;
+            totalRows += rows;
+            runs++;
+            if (failed) {
+                failures++;
+            }
+        }
+
+        private synchronized CleanupJobStatsResponse toResponse() {
+            return CleanupJobStatsResponse.builder()
+                    .job(job)
+                    .lastRunAt(lastRunAt)
+                    .lastRows(lastRows)
+                    .lastDurationMillis(lastDurationMillis)
+                    .lastChunks(lastChunks)
+                    .totalRows(totalRows)
+                    .runs(runs)
+                    .failures(failures)
+                    .build();
+        }
+    }
+}
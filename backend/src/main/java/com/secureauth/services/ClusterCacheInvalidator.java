@@ -0,0 +1,161 @@
+package com.secureauth.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation des caches locaux sur toutes les instances (PostgreSQL LISTEN/NOTIFY)
+ * - publish() émet un NOTIFY dans la transaction courante : les autres instances ne le reçoivent
+ *   qu'au commit, jamais en cas de rollback
+ * - une connexion dédiée écoute le canal et applique l'invalidation aux caches abonnés
+ * - à chaque (re)connexion de l'écoute, les caches abonnés sont vidés : les notifications émises
+ *   pendant une coupure sont perdues ; le TTL de chaque cache reste le dernier filet de sécurité
+ */
+@Component
+@Slf4j
+public class ClusterCacheInvalidator {
+
+    private static final String CHANNEL = "secureauth_cache_invalidation";
+    private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+    private static final String ALL = "*";
+    private static final char SEPARATOR = '|';
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long reconnectDelayMillis;
+
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public ClusterCacheInvalidator(DataSource dataSource,
+                                   JdbcTemplate jdbcTemplate,
+                                   @Value("${security.cache-invalidation.enabled:true}") boolean enabled,
+                                   @Value("${security.cache-invalidation.reconnect-delay:5000}") long reconnectDelayMillis) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::runLoop, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    /**
+     * Abonne un cache local : une entrée (clé publiée) ou tout le cache
+     */
+    public void subscribe(String cache, Consumer<String> invalidateKey, Runnable invalidateAll) {
+        subscribers.put(cache, new Subscriber(invalidateKey, invalidateAll));
+    }
+
+    /**
+     * Demande aux autres instances d'invalider une entrée (au commit de la transaction courante)
+     */
+    public void publish(String cache, String key) {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.queryForList(NOTIFY, CHANNEL, cache + SEPARATOR + key);
+    }
+
+    /**
+     * Demande aux autres instances de vider tout le cache (au commit de la transaction courante)
+     */
+    public void publishAll(String cache) {
+        publish(cache, ALL);
+    }
+
+    private void runLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Notifications possiblement manquées avant cette connexion
+                subscribers.values().forEach(subscriber -> subscriber.invalidateAll().run());
+                log.info("Cache invalidation listener connected");
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Cache invalidation listener disconnected, retrying in {} ms: {}",
+                        reconnectDelayMillis, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        int separator = payload.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return;
+        }
+        Subscriber subscriber = subscribers.get(payload.substring(0, separator));
+        if (subscriber == null) {
+            return;
+        }
+        String key = payload.substring(separator + 1);
+        try {
+            if (ALL.equals(key)) {
+                subscriber.invalidateAll().run();
+            } else {
+                subscriber.invalidateKey().accept(key);
+            }
+        } catch (RuntimeException e) {
+            log.error("Cache invalidation failed for {}", payload, e);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (listenerThread == null) {
+            return;
+        }
+        running = false;
+        listenerThread.join(POLL_TIMEOUT_MILLIS * 2L);
+    }
+
+    private record Subscriber(Consumer<String> invalidateKey, Runnable invalidateAll) {
+    }
+}
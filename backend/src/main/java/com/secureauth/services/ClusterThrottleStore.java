@@ -0,0 +1,239 @@
+package com.secureauth.services;
+
+import com.secureauth.utils.DataAccessFailures;
+import com.secureauth.utils.TokenHasher;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compteurs de tentatives de connexion partagés entre instances, via une table PostgreSQL UNLOGGED
+ * Fenêtres fixes par période, lissées en fenêtre glissante (fenêtre précédente pondérée).
+ *
+ * Aucune requête sur le chemin de la requête HTTP : les tentatives sont comptées en mémoire,
+ * puis une synchronisation périodique envoie les deltas non nuls et relit les totaux du cluster
+ * en un seul aller-retour (upsert ... RETURNING pour les clés modifiées, lecture des autres).
+ * Les totaux ont donc au plus un intervalle de synchronisation de retard.
+ * La fenêtre précédente est suivie dès la première tentative sur une clé, pour que son total
+ * (tentatives des autres instances) entre dans l'estimation glissante.
+ * Table locale pleine : les nouvelles clés ne sont pas comptées au niveau du cluster (jamais de fenêtre
+ * partagée entre clients sans rapport) ; la limite locale de chaque instance (RateLimiter) s'applique toujours.
+ * Les clés contiennent des valeurs d'origine client (IP, username) : seule leur empreinte SHA-256
+ * (43 caractères base64url) est stockée, de longueur fixe quelle que soit l'entrée.
+ * Un échec de synchronisation ne réinjecte que les deltas encore utiles (échec transitoire,
+ * fenêtre non expirée) ; les autres sont abandonnés plutôt que renvoyés indéfiniment.
+ */
+@Component
+@Slf4j
+public class ClusterThrottleStore {
+
+    private static final String CREATE_TABLE =
+            "CREATE UNLOGGED TABLE IF NOT EXISTS login_throttle_counters (" +
+            "throttle_key VARCHAR(400) NOT NULL, " +
+            "window_start BIGINT NOT NULL, " +
+            "attempts INTEGER NOT NULL, " +
+            "PRIMARY KEY (throttle_key, window_start))";
+
+    // Upsert des deltas non nuls et lecture des totaux des autres clés suivies, en une seule requête
+    private static final String SYNC =
+            "WITH upserted AS (" +
+            "INSERT INTO login_throttle_counters (throttle_key, window_start, attempts) " +
+            "SELECT * FROM unnest(?::varchar[], ?::bigint[], ?::int[]) " +
+            "ON CONFLICT (throttle_key, window_start) " +
+            "DO UPDATE SET attempts = login_throttle_counters.attempts + EXCLUDED.attempts " +
+            "RETURNING throttle_key, window_start, attempts) " +
+            "SELECT throttle_key, window_start, attempts FROM upserted " +
+            "UNION ALL " +
+            "SELECT c.throttle_key, c.window_start, c.attempts FROM login_throttle_counters c " +
+            "JOIN unnest(?::varchar[], ?::bigint[]) AS k(throttle_key, window_start) " +
+            "ON c.throttle_key = k.throttle_key AND c.window_start = k.window_start";
+
+    private static final String PURGE = "DELETE FROM login_throttle_counters WHERE window_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int maxKeys;
+
+    // Clé "scope|clé|début de fenêtre" -> état local de la fenêtre
+    private final ConcurrentHashMap<WindowKey, WindowState> windows = new ConcurrentHashMap<>();
+
+    public ClusterThrottleStore(
+            JdbcTemplate jdbcTemplate,
+            @Value("${security.login-throttle.cluster.enabled:false}") boolean enabled,
+            @Value("${security.login-throttle.max-keys:100000}") int maxKeys) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.maxKeys = maxKeys;
+    }
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute(CREATE_TABLE);
+            log.info("Cluster login throttling enabled (login_throttle_counters)");
+        } catch (Exception e) {
+            log.error("Could not create login_throttle_counters, cluster throttling inactive until it exists", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Compte une tentative et indique le délai d'attente si le total estimé du cluster dépasse la limite
+     *
+     * @return 0 si autorisé, sinon le délai d'attente en millisecondes
+     */
+    public long tryAcquire(String scope, String key, int limit, long periodMillis) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        long windowStart = now - (now % periodMillis);
+        String throttleKey = digest(scope, key);
+        if (!isTracked(throttleKey, windowStart)) {
+            return 0;
+        }
+
+        WindowState current = windows.computeIfAbsent(new WindowKey(throttleKey, windowStart),
+                k -> new WindowState(windowStart + 2 * periodMillis));
+        // Fenêtre précédente suivie même sans tentative locale : son total est relu à la synchronisation
+        WindowState previous = windows.computeIfAbsent(new WindowKey(throttleKey, windowStart - periodMillis),
+                k -> new WindowState(windowStart + periodMillis));
+
+        double previousWeight = 1.0 - (double) (now - windowStart) / periodMillis;
+        double estimate = current.estimate() + previous.estimate() * previousWeight;
+        if (estimate >= limit) {
+            return Math.max(1, windowStart + periodMillis - now);
+        }
+        current.pending.incrementAndGet();
+        return 0;
+    }
+
+    /**
+     * Envoie les deltas locaux et relit les totaux du cluster pour les clés suivies (un seul aller-retour)
+     */
+    @Scheduled(fixedDelayString = "${security.login-throttle.cluster.sync-interval:1000}")
+    public void sync() {
+        if (!enabled || windows.isEmpty()) {
+            return;
+        }
+
+        List<WindowKey> changed = new ArrayList<>();
+        List<Integer> deltas = new ArrayList<>();
+        List<WindowKey> unchanged = new ArrayList<>();
+        for (Map.Entry<WindowKey, WindowState> entry : windows.entrySet()) {
+            int delta = entry.getValue().pending.getAndSet(0);
+            if (delta != 0) {
+                changed.add(entry.getKey());
+                deltas.add(delta);
+            } else {
+                unchanged.add(entry.getKey());
+            }
+        }
+
+        try {
+            jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(SYNC);
+                ps.setArray(1, con.createArrayOf("varchar", changed.stream().map(WindowKey::throttleKey).toArray()));
+                ps.setArray(2, con.createArrayOf("bigint", changed.stream().map(WindowKey::windowStart).toArray()));
+                ps.setArray(3, con.createArrayOf("integer", deltas.toArray()));
+                ps.setArray(4, con.createArrayOf("varchar", unchanged.stream().map(WindowKey::throttleKey).toArray()));
+                ps.setArray(5, con.createArrayOf("bigint", unchanged.stream().map(WindowKey::windowStart).toArray()));
+                return ps;
+            }, rs -> {
+                WindowState state = windows.get(new WindowKey(rs.getString(1), rs.getLong(2)));
+                if (state != null) {
+                    state.global = rs.getInt(3);
+                }
+            });
+        } catch (Exception e) {
+            if (!DataAccessFailures.isTransient(e)) {
+                // La même requête échouerait encore : les deltas sont abandonnés (comptage local conservé)
+                log.error("Cluster throttle sync rejected, {} deltas dropped: {}", changed.size(), e.getMessage());
+                return;
+            }
+            // Réinjecte les deltas des fenêtres encore actives pour la prochaine synchronisation
+            long now = System.currentTimeMillis();
+            int kept = 0;
+            for (int i = 0; i < changed.size(); i++) {
+                WindowState state = windows.get(changed.get(i));
+                if (state != null && state.expiresAt > now) {
+                    state.pending.addAndGet(deltas.get(i));
+                    kept++;
+                }
+            }
+            log.warn("Cluster throttle sync failed, {} of {} deltas kept pending: {}",
+                    kept, changed.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Oublie localement les fenêtres terminées, deltas non envoyés compris (ils ne comptent plus
+     * dans aucune estimation), et purge la table (fenêtres de plus d'une heure)
+     */
+    @Scheduled(fixedDelayString = "${security.login-throttle.sweep-interval:60000}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        windows.entrySet().removeIf(e -> e.getValue().expiresAt <= now);
+        try {
+            jdbcTemplate.update(PURGE, now - 3_600_000L);
+        } catch (Exception e) {
+            log.warn("Cluster throttle purge failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Clé déjà suivie pour cette fenêtre, ou place disponible dans la table locale
+     */
+    private boolean isTracked(String throttleKey, long windowStart) {
+        return windows.size() < maxKeys || windows.containsKey(new WindowKey(throttleKey, windowStart));
+    }
+
+    /**
+     * Empreinte de longueur fixe de la clé (IP ou username fournis par le client)
+     */
+    private static String digest(String scope, String key) {
+        return TokenHasher.toKey(TokenHasher.sha256(scope + '|' + key));
+    }
+
+    public int getTrackedWindows() {
+        return windows.size();
+    }
+
+    private record WindowKey(String throttleKey, long windowStart) {
+    }
+
+    private static final class WindowState {
+        private final AtomicInteger pending = new AtomicInteger();
+        private final long expiresAt;
+        private volatile int global;
+
+        private WindowState(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Total connu du cluster (dernière synchronisation) plus les tentatives locales non encore envoyées
+         */
+        private int estimate() {
+            return global + pending.get();
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.secureauth.services;
 
-import com.secureauth.entities.User;
 import com.secureauth.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,20 +9,19 @@ import org.springframework.stereotype.Service;
 
 /**
  * Service UserDetailsService pour Spring Security
- * Charge les détails de l'utilisateur depuis la base de données
+ * Charge les détails de l'utilisateur depuis la base de données (via le cache UserDetails)
  */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        return userCacheService.get(username, key -> userRepository.findByUsername(key)
                 .orElseThrow(() -> new UsernameNotFoundException(
-                        "Utilisateur non trouvé avec le nom : " + username));
-        
-        return user;
+                        "Utilisateur non trouvé avec le nom : " + key)));
     }
 }
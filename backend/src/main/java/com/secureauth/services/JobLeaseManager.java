@@ -0,0 +1,155 @@
+package com.secureauth.services;
+
+import com.secureauth.dto.JobLeaseResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Exécution unique dans le cluster des tâches de maintenance planifiées, par bail (lease) en base
+ * Chaque instance déclenche ses @Scheduled normalement ; seule celle qui obtient le bail exécute la tâche,
+ * les autres passent leur tour. Le bail est pris par un upsert conditionnel atomique (table scheduled_job_leases),
+ * avec l'horloge de PostgreSQL comme référence commune :
+ * - lockAtMost : durée maximale du bail, au-delà de laquelle une instance arrêtée en cours de tâche est remplacée
+ * - lockAtLeast : durée minimale, pour qu'une instance dont le déclenchement est décalé ne relance pas la même
+ *   exécution (typiquement un peu moins que la période de la tâche)
+ * À l'intérieur d'une tâche, les lots réservent leurs lignes avec FOR UPDATE SKIP LOCKED (CleanupJobExecutor) :
+ * un bail expiré pendant une exécution longue ne provoque donc pas de double traitement.
+ */
+@Component
+@Slf4j
+public class JobLeaseManager {
+
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS scheduled_job_leases (" +
+            "job_name VARCHAR(100) PRIMARY KEY, " +
+            "owner VARCHAR(255) NOT NULL, " +
+            "acquired_at TIMESTAMPTZ NOT NULL, " +
+            "lease_until TIMESTAMPTZ NOT NULL, " +
+            "last_completed_at TIMESTAMPTZ, " +
+            "last_duration_ms BIGINT, " +
+            "run_count BIGINT NOT NULL DEFAULT 0)";
+
+    // Insère le bail, ou le reprend s'il a expiré ; 0 ligne si une autre instance le détient
+    private static final String ACQUIRE =
+            "INSERT INTO scheduled_job_leases (job_name, owner, acquired_at, lease_until) " +
+            "VALUES (?, ?, now(), now() + ? * interval '1 millisecond') " +
+            "ON CONFLICT (job_name) DO UPDATE SET owner = EXCLUDED.owner, " +
+            "acquired_at = EXCLUDED.acquired_at, lease_until = EXCLUDED.lease_until " +
+            "WHERE scheduled_job_leases.lease_until <= now()";
+
+    private static final String RELEASE =
+            "UPDATE scheduled_job_leases SET " +
+            "lease_until = GREATEST(now(), acquired_at + ? * interval '1 millisecond'), " +
+            "last_completed_at = now(), last_duration_ms = ?, run_count = run_count + 1 " +
+            "WHERE job_name = ? AND owner = ?";
+
+    private static final String LIST =
+            "SELECT job_name, owner, acquired_at, lease_until, last_completed_at, last_duration_ms, run_count " +
+            "FROM scheduled_job_leases ORDER BY job_name";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final String instanceId;
+
+    public JobLeaseManager(
+            JdbcTemplate jdbcTemplate,
+            @Value("${security.scheduling.leases.enabled:true}") boolean enabled,
+            @Value("${security.scheduling.instance-id:}") String instanceId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        // Par défaut : pid@hôte + suffixe aléatoire (plusieurs instances locales restent distinctes)
+        this.instanceId = instanceId != null && !instanceId.isBlank()
+                ? instanceId
+                : ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute(CREATE_TABLE);
+            log.info("Scheduled job leases enabled, instance id {}", instanceId);
+        } catch (Exception e) {
+            log.error("Could not create scheduled_job_leases, leased jobs will be skipped until it exists", e);
+        }
+    }
+
+    /**
+     * Exécute la tâche si cette instance obtient le bail
+     *
+     * @return true si la tâche a été exécutée ici
+     */
+    public boolean runExclusively(String job, long lockAtMostMillis, long lockAtLeastMillis, Runnable task) {
+        if (!enabled) {
+            task.run();
+            return true;
+        }
+
+        int acquired;
+        try {
+            acquired = jdbcTemplate.update(ACQUIRE, job, instanceId, lockAtMostMillis);
+        } catch (Exception e) {
+            log.warn("Could not acquire lease for job {}, run skipped: {}", job, e.getMessage());
+            return false;
+        }
+        if (acquired == 0) {
+            log.debug("Job {} skipped, lease held by another instance", job);
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            release(job, lockAtLeastMillis, (System.nanoTime() - start) / 1_000_000);
+        }
+        return true;
+    }
+
+    private void release(String job, long lockAtLeastMillis, long durationMillis) {
+        try {
+            int updated = jdbcTemplate.update(RELEASE, lockAtLeastMillis, durationMillis, job, instanceId);
+            if (updated == 0) {
+                log.warn("Lease for job {} expired during its run ({} ms) and was taken over", job, durationMillis);
+            }
+        } catch (Exception e) {
+            // Le bail expirera de lui-même (lockAtMost)
+            log.warn("Could not release lease for job {}: {}", job, e.getMessage());
+        }
+    }
+
+    public List<JobLeaseResponse> getLeases() {
+        if (!enabled) {
+            return List.of();
+        }
+        return jdbcTemplate.query(LIST, (rs, rowNum) -> JobLeaseResponse.builder()
+                .job(rs.getString("job_name"))
+                .owner(rs.getString("owner"))
+                .ownedByThisInstance(instanceId.equals(rs.getString("owner")))
+                .acquiredAt(toLocalDateTime(rs.getTimestamp("acquired_at")))
+                .leaseUntil(toLocalDateTime(rs.getTimestamp("lease_until")))
+                .lastCompletedAt(toLocalDateTime(rs.getTimestamp("last_completed_at")))
+                .lastDurationMillis(rs.getObject("last_duration_ms", Long.class))
+                .runCount(rs.getLong("run_count"))
+                .build());
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
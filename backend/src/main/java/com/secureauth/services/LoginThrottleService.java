@@ -0,0 +1,145 @@
+package com.secureauth.services;
+
+import com.secureauth.dto.LoginThrottleStatsResponse;
+import com.secureauth.entities.AuditLog;
+import com.secureauth.exceptions.TooManyRequestsException;
+import com.secureauth.utils.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+/**
+ * Limitation des tentatives de connexion, vérifiée avant toute requête et avant BCrypt
+ * Trois limiteurs indépendants : par IP, par username (même inexistant) et par couple IP + username.
+ * S'applique à tous les comptes, administrateurs compris.
+ * Avec security.login-throttle.cluster.enabled, les compteurs sont aussi partagés entre instances
+ * (ClusterThrottleStore) ; le compteur de verrouillage (User.failedLoginAttempts) est déjà en base.
+ */
+@Service
+@Slf4j
+public class LoginThrottleService {
+
+    private final AuditService auditService;
+    private final ClusterThrottleStore clusterThrottleStore;
+    private final boolean enabled;
+    private final Limit byIp;
+    private final Limit byUsername;
+    private final Limit byIpAndUsername;
+
+    public LoginThrottleService(
+            AuditService auditService,
+            ClusterThrottleStore clusterThrottleStore,
+            @Value("${security.login-throttle.enabled:true}") boolean enabled,
+            @Value("${security.login-throttle.ip.limit:30}") int ipLimit,
+            @Value("${security.login-throttle.ip.period:60000}") long ipPeriod,
+            @Value("${security.login-throttle.username.limit:10}") int usernameLimit,
+            @Value("${security.login-throttle.username.period:60000}") long usernamePeriod,
+            @Value("${security.login-throttle.ip-username.limit:5}") int ipUsernameLimit,
+            @Value("${security.login-throttle.ip-username.period:60000}") long ipUsernamePeriod,
+            @Value("${security.login-throttle.max-keys:100000}") int maxKeys) {
+        this.auditService = auditService;
+        this.clusterThrottleStore = clusterThrottleStore;
+        this.enabled = enabled;
+        this.byIp = new Limit("IP", ipLimit, ipPeriod, maxKeys);
+        this.byUsername = new Limit("USERNAME", usernameLimit, usernamePeriod, maxKeys);
+        this.byIpAndUsername = new Limit("IP+USERNAME", ipUsernameLimit, ipUsernamePeriod, maxKeys);
+    }
+
+    /**
+     * Consomme une tentative ; lève TooManyRequestsException si une des limites est atteinte
+     */
+    public void checkAllowed(String username, String ipAddress) {
+        if (!enabled) {
+            return;
+        }
+        String user = normalize(username);
+        String ip = ipAddress != null ? ipAddress : "Unknown";
+
+        check(byIpAndUsername, ip + '|' + user, username, ip);
+        check(byIp, ip, username, ip);
+        check(byUsername, user, username, ip);
+    }
+
+    /**
+     * Connexion réussie : le couple IP + username retrouve sa capacité complète
+     */
+    public void onSuccess(String username, String ipAddress) {
+        if (!enabled) {
+            return;
+        }
+        byIpAndUsername.limiter.reset((ipAddress != null ? ipAddress : "Unknown") + '|' + normalize(username));
+    }
+
+    /**
+     * Limite locale d'abord (sans coût), puis total estimé du cluster (en mémoire, synchronisé en arrière-plan)
+     */
+    private void check(Limit limit, String key, String username, String ip) {
+        long waitMillis = limit.limiter.tryAcquire(key);
+        if (waitMillis == 0) {
+            waitMillis = clusterThrottleStore.tryAcquire(limit.scope, key, limit.limit, limit.periodMillis);
+        }
+        if (waitMillis == 0) {
+            return;
+        }
+        // Un seul événement d'audit par clé et par période, pour ne pas saturer l'audit pendant une attaque
+        if (limit.limiter.shouldReport(key)) {
+            auditService.logFailure(username, AuditLog.Action.LOGIN_THROTTLED,
+                    "Tentatives de connexion limitées (" + limit.scope + ") depuis " + ip);
+            log.warn("Login throttled ({}) for user {} from {}", limit.scope, username, ip);
+        }
+        long retryAfterSeconds = Math.max(1, (waitMillis + 999) / 1000);
+        throw new TooManyRequestsException(
+                "Trop de tentatives de connexion. Réessayez dans " + retryAfterSeconds + " seconde(s).",
+                retryAfterSeconds);
+    }
+
+    private String normalize(String username) {
+        return username != null ? username.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Libère les clés inactives (seau de nouveau plein)
+     */
+    @Scheduled(fixedDelayString = "${security.login-throttle.sweep-interval:60000}")
+    public void evictIdle() {
+        byIp.limiter.evictIdle();
+        byUsername.limiter.evictIdle();
+        byIpAndUsername.limiter.evictIdle();
+    }
+
+    public LoginThrottleStatsResponse getStats() {
+        return LoginThrottleStatsResponse.builder()
+                .enabled(enabled)
+                .trackedIps(byIp.limiter.size())
+                .trackedUsernames(byUsername.limiter.size())
+                .trackedIpUsernames(byIpAndUsername.limiter.size())
+                .rejectedByIp(byIp.limiter.getRejected())
+                .rejectedByUsername(byUsername.limiter.getRejected())
+                .rejectedByIpUsername(byIpAndUsername.limiter.getRejected())
+                .evictedLeastRecent(byIp.limiter.getEvictedLeastRecent() + byUsername.limiter.getEvictedLeastRecent()
+                        + byIpAndUsername.limiter.getEvictedLeastRecent())
+                .clusterEnabled(clusterThrottleStore.isEnabled())
+                .clusterTrackedWindows(clusterThrottleStore.getTrackedWindows())
+                .build();
+    }
+
+    /**
+     * Limite configurée pour une portée (IP, username, IP + username) et son limiteur local
+     */
+    private static final class Limit {
+        private final String scope;
+        private final int limit;
+        private final long periodMillis;
+        private final RateLimiter limiter;
+
+        private Limit(String scope, int limit, long periodMillis, int maxKeys) {
+            this.scope = scope;
+            this.limit = limit;
+            this.periodMillis = periodMillis;
+            this.limiter = new RateLimiter(limit, periodMillis, maxKeys);
+        }
+    }
+}
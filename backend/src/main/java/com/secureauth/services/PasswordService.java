@@ -26,6 +26,7 @@ public class PasswordService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuditService auditService;
+    private final UserCacheService userCacheService;
 
     // Password policy configuration
     private static final int MIN_LENGTH = 8;
@@ -71,6 +72,7 @@ public class PasswordService {
         user.setCredentialsNonExpired(true);
 
         userRepository.save(user);
+        userCacheService.evict(username);
 
         auditService.logAction("PASSWORD_CHANGED", username, "Password changed successfully", true);
         log.info("Password changed successfully for user: {}", username);
@@ -168,6 +170,7 @@ public class PasswordService {
             user.setCredentialsNonExpired(false);
             user.setMustChangePassword(true);
             userRepository.save(user);
+            userCacheService.evict(user.getUsername());
             log.warn("Password expired for user: {}", user.getUsername());
         }
     }
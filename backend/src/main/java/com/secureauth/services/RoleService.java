@@ -1,5 +1,6 @@
 package com.secureauth.services;
 
+import com.secureauth.config.PermissionRegistry;
 import com.secureauth.dto.RoleRequest;
 import com.secureauth.dto.RoleResponse;
 import com.secureauth.entities.AuditLog;
@@ -11,6 +12,8 @@ import com.secureauth.repositories.PermissionRepository;
 import com.secureauth.repositories.RoleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,6 +34,16 @@ public class RoleService {
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
     private final AuditService auditService;
+    private final UserCacheService userCacheService;
+    private final PermissionRegistry permissionRegistry;
+
+    /**
+     * Charge le catalogue des rôles et permissions dans le registre au démarrage
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initPermissionRegistry() {
+        permissionRegistry.refresh(roleRepository.findAll());
+    }
 
     /**
      * Récupère tous les rôles
@@ -87,6 +100,7 @@ public class RoleService {
                 .build();
 
         role = roleRepository.save(role);
+        permissionRegistry.refresh(List.of(role));
 
         auditService.logSuccess(adminUsername, AuditLog.Action.ROLE_CREATED, 
                 "Rôle créé: " + role.getName());
@@ -127,6 +141,8 @@ public class RoleService {
         }
 
         role = roleRepository.save(role);
+        userCacheService.evictAll();
+        permissionRegistry.refresh(List.of(role));
 
         auditService.logSuccess(adminUsername, AuditLog.Action.ROLE_UPDATED, 
                 "Rôle mis à jour: " + role.getName());
@@ -146,6 +162,7 @@ public class RoleService {
 
         String roleName = role.getName();
         roleRepository.delete(role);
+        userCacheService.evictAll();
 
         auditService.logSuccess(adminUsername, AuditLog.Action.ROLE_DELETED, 
                 "Rôle supprimé: " + roleName);
@@ -166,6 +183,8 @@ public class RoleService {
 
         role.addPermission(permission);
         role = roleRepository.save(role);
+        userCacheService.evictAll();
+        permissionRegistry.refresh(List.of(role));
 
         auditService.logSuccess(adminUsername, AuditLog.Action.PERMISSION_ASSIGNED, 
                 "Permission " + permissionName + " ajoutée au rôle: " + role.getName());
@@ -189,6 +208,8 @@ public class RoleService {
 
         role.removePermission(permission);
         role = roleRepository.save(role);
+        userCacheService.evictAll();
+        permissionRegistry.refresh(List.of(role));
 
         auditService.logSuccess(adminUsername, AuditLog.Action.PERMISSION_REMOVED, 
                 "Permission " + permissionName + " retirée du rôle: " + role.getName());
@@ -0,0 +1,427 @@
+package com.secureauth.services;
+
+import com.secureauth.dto.SecurityAlertResponse;
+import com.secureauth.entities.AuditLog;
+import com.secureauth.entities.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moteur d'alertes de sécurité incrémental
+ * Alimenté depuis la table audit_logs partagée, lue par curseur sur (timestamp, id) : chaque instance
+ * voit ainsi les échecs de connexion de tout le cluster. Compteurs en fenêtre glissante (par username
+ * et par IP) et ensemble des alertes actives maintenu en continu ; la consultation des alertes ne
+ * parcourt que les alertes actives, sans requête en base.
+ *
+ * Les ids étant alloués par blocs par instance et les écritures d'audit étant différées, un événement
+ * peut être visible en base après un autre plus récent : chaque lecture reprend donc depuis
+ * (curseur - poll-overlap) et ignore les ids déjà comptés. Un événement écrit plus de poll-overlap après
+ * sa capture (rejeu du journal après une panne longue de la base) n'est pas compté.
+ *
+ * Comptes verrouillés : tenus à jour par accountLocked/accountUnlocked sur l'instance qui traite l'action,
+ * et relus (projection username, lock_time, failed_login_attempts sur l'index partiel des comptes
+ * verrouillés) uniquement lors d'une consultation des alertes, au plus une fois par locked-refresh-interval,
+ * pour refléter les actions des autres instances. Un compte verrouillé sans date de verrouillage
+ * n'est pas signalé.
+ */
+@Component
+@Slf4j
+public class SecurityAlertEngine {
+
+    // Index (action, timestamp, id) ; comparaison de lignes pour paginer sans OFFSET
+    private static final String FAILURES_AFTER =
+            "SELECT id, username, ip_address, timestamp FROM audit_logs " +
+            "WHERE action = ? AND (timestamp, id) > (?, ?) ORDER BY timestamp, id LIMIT ?";
+
+    // Index partiel idx_users_locked (migration_security_alerts.sql)
+    private static final String LOCKED_ACCOUNTS =
+            "SELECT username, lock_time, failed_login_attempts FROM users " +
+            "WHERE account_non_locked = false AND lock_time IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final long pollOverlapMillis;
+    private final long lockedRefreshMillis;
+    private final int pollBatchSize;
+    private final long bucketMillis;
+    private final long windowMillis;
+    private final int maxKeys;
+    private final int userThreshold;
+    private final int userHighThreshold;
+    private final int ipThreshold;
+    private final int ipHighThreshold;
+
+    private final ConcurrentHashMap<String, WindowCounter> failuresByUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, WindowCounter> failuresByIp = new ConcurrentHashMap<>();
+    private final Set<String> alertingUsers = ConcurrentHashMap.newKeySet();
+    private final Set<String> alertingIps = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, LockedAccount> lockedAccounts = new ConcurrentHashMap<>();
+
+    private final LongAdder droppedKeys = new LongAdder();
+    private final AtomicLong lockedAccountsReadAt = new AtomicLong();
+
+    // Curseur de lecture et ids déjà comptés dans la zone de recouvrement (accès sous verrou)
+    private LocalDateTime cursor;
+    private final Map<Long, LocalDateTime> seenIds = new HashMap<>();
+
+    public SecurityAlertEngine(
+            JdbcTemplate jdbcTemplate,
+            @Value("${security.alerts.poll-overlap:120000}") long pollOverlapMillis,
+            @Value("${security.alerts.locked-refresh-interval:10000}") long lockedRefreshMillis,
+            @Value("${security.alerts.poll-batch-size:1000}") int pollBatchSize,
+            @Value("${security.alerts.bucket-size:300000}") long bucketMillis,
+            @Value("${security.alerts.window:604800000}") long windowMillis,
+            @Value("${security.alerts.max-keys:100000}") int maxKeys,
+            @Value("${security.alerts.user-threshold:3}") int userThreshold,
+            @Value("${security.alerts.user-high-threshold:6}") int userHighThreshold,
+            @Value("${security.alerts.ip-threshold:10}") int ipThreshold,
+            @Value("${security.alerts.ip-high-threshold:20}") int ipHighThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pollOverlapMillis = pollOverlapMillis;
+        this.lockedRefreshMillis = lockedRefreshMillis;
+        this.pollBatchSize = pollBatchSize;
+        this.bucketMillis = bucketMillis;
+        this.windowMillis = windowMillis;
+        this.maxKeys = maxKeys;
+        this.userThreshold = userThreshold;
+        this.userHighThreshold = userHighThreshold;
+        this.ipThreshold = ipThreshold;
+        this.ipHighThreshold = ipHighThreshold;
+    }
+
+    /**
+     * Construit l'état initial depuis la base : échecs de la fenêtre glissante et comptes verrouillés
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void bootstrap() {
+        try {
+            LocalDateTime windowStart = LocalDateTime.now().minusNanos(windowMillis * 1_000_000);
+            cursor = windowStart;
+            readFailures(windowStart);
+            readLockedAccounts();
+            log.info("Security alert engine initialised: {} locked accounts, {} users and {} IPs tracked",
+                    lockedAccounts.size(), failuresByUser.size(), failuresByIp.size());
+        } catch (Exception e) {
+            log.error("Error initialising security alert engine", e);
+        }
+    }
+
+    /**
+     * Lit les échecs de connexion écrits depuis la dernière lecture (toutes instances confondues)
+     */
+    @Scheduled(fixedDelayString = "${security.alerts.poll-interval:10000}")
+    public synchronized void poll() {
+        if (cursor == null) {
+            return;
+        }
+        try {
+            readFailures(cursor.minusNanos(pollOverlapMillis * 1_000_000));
+        } catch (Exception e) {
+            log.warn("Error polling audit logs for security alerts: {}", e.getMessage());
+        }
+    }
+
+    private void readFailures(LocalDateTime from) {
+        Timestamp afterTimestamp = Timestamp.valueOf(from);
+        long afterId = Long.MIN_VALUE;
+        List<FailureRow> page;
+        do {
+            page = jdbcTemplate.query(FAILURES_AFTER,
+                    (rs, rowNum) -> new FailureRow(rs.getLong("id"), rs.getString("username"),
+                            rs.getString("ip_address"), rs.getTimestamp("timestamp").toLocalDateTime()),
+                    AuditLog.Action.LOGIN_FAILED, afterTimestamp, afterId, pollBatchSize);
+            for (FailureRow row : page) {
+                if (seenIds.putIfAbsent(row.id(), row.timestamp()) == null) {
+                    record(row.username(), row.ipAddress(), row.timestamp());
+                }
+                if (row.timestamp().isAfter(cursor)) {
+                    cursor = row.timestamp();
+                }
+            }
+            if (!page.isEmpty()) {
+                FailureRow last = page.get(page.size() - 1);
+                afterTimestamp = Timestamp.valueOf(last.timestamp());
+                afterId = last.id();
+            }
+        } while (page.size() == pollBatchSize);
+
+        LocalDateTime overlapStart = cursor.minusNanos(pollOverlapMillis * 1_000_000);
+        seenIds.values().removeIf(timestamp -> timestamp.isBefore(overlapStart));
+    }
+
+    /**
+     * Relit les comptes verrouillés si la dernière lecture date de plus de locked-refresh-interval
+     * (une seule instance de relecture à la fois ; en cas d'échec, l'état courant est conservé)
+     */
+    private void refreshLockedAccountsIfStale() {
+        long readAt = lockedAccountsReadAt.get();
+        long now = System.currentTimeMillis();
+        if (now - readAt < lockedRefreshMillis || !lockedAccountsReadAt.compareAndSet(readAt, now)) {
+            return;
+        }
+        try {
+            readLockedAccounts();
+        } catch (Exception e) {
+            log.warn("Error reading locked accounts for security alerts: {}", e.getMessage());
+        }
+    }
+
+    private void readLockedAccounts() {
+        Map<String, LockedAccount> locked = new HashMap<>();
+        jdbcTemplate.query(LOCKED_ACCOUNTS, rs -> {
+            locked.put(rs.getString("username"), new LockedAccount(
+                    rs.getTimestamp("lock_time").toLocalDateTime(), rs.getInt("failed_login_attempts")));
+        });
+        lockedAccounts.keySet().retainAll(locked.keySet());
+        lockedAccounts.putAll(locked);
+        lockedAccountsReadAt.set(System.currentTimeMillis());
+    }
+
+    /**
+     * Compte un échec de connexion
+     */
+    private void record(String username, String ipAddress, LocalDateTime timestamp) {
+        long bucket = toMillis(timestamp) / bucketMillis;
+        long minBucket = currentBucket() - windowBuckets();
+
+        if (username != null) {
+            WindowCounter counter = counterFor(failuresByUser, username);
+            if (counter != null && counter.add(bucket, minBucket, timestamp, ipAddress) >= userThreshold) {
+                alertingUsers.add(username);
+            }
+        }
+        if (ipAddress != null && !"Unknown".equals(ipAddress)) {
+            WindowCounter counter = counterFor(failuresByIp, ipAddress);
+            if (counter != null && counter.add(bucket, minBucket, timestamp, ipAddress) >= ipThreshold) {
+                alertingIps.add(ipAddress);
+            }
+        }
+    }
+
+    public void accountLocked(User user) {
+        if (user.getLockTime() != null) {
+            lockedAccounts.put(user.getUsername(), new LockedAccount(user.getLockTime(), user.getFailedLoginAttempts()));
+        }
+    }
+
+    public void accountUnlocked(String username) {
+        lockedAccounts.remove(username);
+    }
+
+    /**
+     * Alertes actives depuis "since" (borné à la fenêtre glissante), en O(alertes)
+     */
+    public List<SecurityAlertResponse> getAlerts(String severity, LocalDateTime since) {
+        refreshLockedAccountsIfStale();
+        List<SecurityAlertResponse> alerts = new ArrayList<>();
+        long fromBucket = Math.max(toMillis(since) / bucketMillis, currentBucket() - windowBuckets());
+
+        for (Map.Entry<String, LockedAccount> entry : lockedAccounts.entrySet()) {
+            LockedAccount locked = entry.getValue();
+            if (locked.lockTime.isAfter(since)) {
+                alerts.add(SecurityAlertResponse.builder()
+                        .alertType("ACCOUNT_LOCKED")
+                        .username(entry.getKey())
+                        .failedAttempts(locked.failedAttempts)
+                        .timestamp(locked.lockTime)
+                        .severity("MEDIUM")
+                        .description("Compte bloqué après " + locked.failedAttempts + " tentatives échouées")
+                        .build());
+            }
+        }
+
+        for (String username : alertingUsers) {
+            WindowCounter counter = failuresByUser.get(username);
+            Snapshot snapshot = counter != null ? counter.snapshot(fromBucket) : Snapshot.EMPTY;
+            if (snapshot.count >= userThreshold) {
+                alerts.add(SecurityAlertResponse.builder()
+                        .alertType("FAILED_LOGIN")
+                        .username(username)
+                        .ipAddress(snapshot.lastIp)
+                        .failedAttempts(snapshot.count)
+                        .timestamp(snapshot.lastAt)
+                        .severity(snapshot.count >= userHighThreshold ? "HIGH" : "MEDIUM")
+                        .description(snapshot.count + " tentatives de connexion échouées")
+                        .build());
+            }
+        }
+
+        for (String ipAddress : alertingIps) {
+            WindowCounter counter = failuresByIp.get(ipAddress);
+            Snapshot snapshot = counter != null ? counter.snapshot(fromBucket) : Snapshot.EMPTY;
+            if (snapshot.count >= ipThreshold) {
+                alerts.add(SecurityAlertResponse.builder()
+                        .alertType("SUSPICIOUS_ACTIVITY")
+                        .ipAddress(ipAddress)
+                        .failedAttempts(snapshot.count)
+                        .timestamp(snapshot.lastAt)
+                        .severity(snapshot.count >= ipHighThreshold ? "HIGH" : "MEDIUM")
+                        .description(snapshot.count + " échecs de connexion depuis cette adresse IP")
+                        .build());
+            }
+        }
+
+        if (severity != null && !severity.isEmpty()) {
+            alerts.removeIf(a -> !severity.equalsIgnoreCase(a.getSeverity()));
+        }
+        for (int i = 0; i < alerts.size(); i++) {
+            alerts.get(i).setId((long) i);
+        }
+        return alerts;
+    }
+
+    /**
+     * Retire les tranches sorties de la fenêtre, les compteurs vides et les alertes retombées
+     */
+    @Scheduled(fixedDelayString = "${security.alerts.bucket-size:300000}")
+    public void prune() {
+        long minBucket = currentBucket() - windowBuckets();
+        prune(failuresByUser, alertingUsers, minBucket, userThreshold);
+        prune(failuresByIp, alertingIps, minBucket, ipThreshold);
+    }
+
+    private void prune(ConcurrentHashMap<String, WindowCounter> counters, Set<String> alerting,
+                       long minBucket, int threshold) {
+        Iterator<Map.Entry<String, WindowCounter>> it = counters.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, WindowCounter> entry = it.next();
+            int count = entry.getValue().prune(minBucket);
+            if (count == 0) {
+                it.remove();
+            }
+            if (count < threshold) {
+                alerting.remove(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Compteur existant ou nouveau ; null si la limite de clés suivies est atteinte
+     */
+    private WindowCounter counterFor(ConcurrentHashMap<String, WindowCounter> counters, String key) {
+        WindowCounter counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        if (counters.size() >= maxKeys) {
+            droppedKeys.increment();
+            return null;
+        }
+        return counters.computeIfAbsent(key, k -> new WindowCounter());
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / bucketMillis;
+    }
+
+    private long windowBuckets() {
+        return windowMillis / bucketMillis;
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public long getDroppedKeys() {
+        return droppedKeys.sum();
+    }
+
+    /**
+     * Compteur en fenêtre glissante par tranches de temps (seules les tranches non vides sont stockées)
+     */
+    private static final class WindowCounter {
+        private final ArrayDeque<long[]> buckets = new ArrayDeque<>(); // {tranche, nombre}
+        private int total;
+        private LocalDateTime lastAt;
+        private String lastIp;
+
+        synchronized int add(long bucket, long minBucket, LocalDateTime timestamp, String ipAddress) {
+            if (bucket < minBucket) {
+                return total;
+            }
+            long[] last = buckets.peekLast();
+            if (last != null && last[0] == bucket) {
+                last[1]++;
+            } else if (last == null || last[0] < bucket) {
+                buckets.addLast(new long[]{bucket, 1});
+            } else {
+                // Événement en retard (rejeu, horloge) : rangé dans sa tranche
+                insertOutOfOrder(bucket);
+            }
+            total++;
+            if (lastAt == null || !timestamp.isBefore(lastAt)) {
+                lastAt = timestamp;
+                lastIp = ipAddress;
+            }
+            prune(minBucket);
+            return total;
+        }
+
+        private void insertOutOfOrder(long bucket) {
+            ArrayDeque<long[]> reordered = new ArrayDeque<>(buckets.size() + 1);
+            boolean inserted = false;
+            for (long[] entry : buckets) {
+                if (!inserted && entry[0] >= bucket) {
+                    if (entry[0] == bucket) {
+                        entry[1]++;
+                    } else {
+                        reordered.addLast(new long[]{bucket, 1});
+                    }
+                    inserted = true;
+                }
+                reordered.addLast(entry);
+            }
+            buckets.clear();
+            buckets.addAll(reordered);
+        }
+
+        synchronized int prune(long minBucket) {
+            while (!buckets.isEmpty() && buckets.peekFirst()[0] < minBucket) {
+                total -= (int) buckets.pollFirst()[1];
+            }
+            return total;
+        }
+
+        synchronized Snapshot snapshot(long fromBucket) {
+            int count = 0;
+            Iterator<long[]> it = buckets.descendingIterator();
+            while (it.hasNext()) {
+                long[] entry = it.next();
+                if (entry[0] < fromBucket) {
+                    break;
+                }
+                count += (int) entry[1];
+            }
+            return new Snapshot(count, lastAt, lastIp);
+        }
+    }
+
+    private record Snapshot(int count, LocalDateTime lastAt, String lastIp) {
+        private static final Snapshot EMPTY = new Snapshot(0, null, null);
+    }
+
+    private record LockedAccount(LocalDateTime lockTime, Integer failedAttempts) {
+    }
+
+    private record FailureRow(long id, String username, String ipAddress, LocalDateTime timestamp) {
+    }
+}
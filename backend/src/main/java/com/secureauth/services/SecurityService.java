@@ -14,9 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -31,62 +29,16 @@ public class SecurityService {
     private final UserRepository userRepository;
     private final AuditLogRepository auditLogRepository;
     private final AuditService auditService;
+    private final UserCacheService userCacheService;
+    private final SecurityAlertEngine securityAlertEngine;
 
     /**
      * Récupère les alertes de sécurité
+     * Servies par le moteur incrémental (aucun parcours de table)
      */
     public List<SecurityAlertResponse> getSecurityAlerts(String severity, LocalDateTime since) {
-        List<SecurityAlertResponse> alerts = new ArrayList<>();
-        
         LocalDateTime startTime = since != null ? since : LocalDateTime.now().minusDays(7);
-        
-        // Détection des comptes bloqués
-        List<User> lockedUsers = userRepository.findByAccountNonLockedFalse();
-        for (User user : lockedUsers) {
-            if (user.getLockTime() != null && user.getLockTime().isAfter(startTime)) {
-                alerts.add(SecurityAlertResponse.builder()
-                        .id((long) alerts.size())
-                        .alertType("ACCOUNT_LOCKED")
-                        .username(user.getUsername())
-                        .failedAttempts(user.getFailedLoginAttempts())
-                        .timestamp(user.getLockTime())
-                        .severity("MEDIUM")
-                        .description("Compte bloqué après " + user.getFailedLoginAttempts() + " tentatives échouées")
-                        .build());
-            }
-        }
-        
-        // Détection des échecs de connexion récents
-        List<AuditLog> failedLogins = auditLogRepository.findByActionAndTimestampAfter(
-                "LOGIN_FAILED", startTime);
-        
-        Map<String, List<AuditLog>> failuresByUser = failedLogins.stream()
-                .collect(Collectors.groupingBy(AuditLog::getUsername));
-        
-        for (Map.Entry<String, List<AuditLog>> entry : failuresByUser.entrySet()) {
-            if (entry.getValue().size() >= 3) {
-                AuditLog latest = entry.getValue().get(0);
-                alerts.add(SecurityAlertResponse.builder()
-                        .id((long) alerts.size())
-                        .alertType("FAILED_LOGIN")
-                        .username(entry.getKey())
-                        .ipAddress(latest.getIpAddress())
-                        .failedAttempts(entry.getValue().size())
-                        .timestamp(latest.getTimestamp())
-                        .severity(entry.getValue().size() > 5 ? "HIGH" : "MEDIUM")
-                        .description(entry.getValue().size() + " tentatives de connexion échouées")
-                        .build());
-            }
-        }
-        
-        // Filtrer par sévérité si demandé
-        if (severity != null && !severity.isEmpty()) {
-            alerts = alerts.stream()
-                    .filter(a -> severity.equalsIgnoreCase(a.getSeverity()))
-                    .collect(Collectors.toList());
-        }
-        
-        return alerts;
+        return securityAlertEngine.getAlerts(severity, startTime);
     }
 
     /**
@@ -124,8 +76,11 @@ public class SecurityService {
         user.setEnabled(false);
         user.setAccountNonLocked(false);
         user.setLockTime(LocalDateTime.now());
+        user.incrementTokenVersion();
         
         User saved = userRepository.save(user);
+        userCacheService.evict(saved.getUsername());
+        securityAlertEngine.accountLocked(saved);
         
         auditService.logAction("ACCOUNT_FROZEN", user.getUsername(), 
                 "Compte gelé par le responsable sécurité. Raison: " + 
@@ -150,6 +105,8 @@ public class SecurityService {
         user.setLockTime(null);
         
         User saved = userRepository.save(user);
+        userCacheService.evict(saved.getUsername());
+        securityAlertEngine.accountUnlocked(saved.getUsername());
         
         auditService.logAction("ACCOUNT_UNFROZEN", user.getUsername(), 
                 "Compte dégelé après investigation", true);
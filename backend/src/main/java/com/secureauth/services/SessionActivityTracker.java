@@ -0,0 +1,122 @@
+package com.secureauth.services;
+
+import com.secureauth.dto.SessionActivityStatsResponse;
+import com.secureauth.utils.TokenHasher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Enregistrement différé (write-behind) de UserSession.lastActivity
+ * Seules les dates d'activité passent par la mémoire : création, limite de sessions simultanées,
+ * invalidation et listing restent en base (source de vérité partagée entre les instances).
+ * Les activités sont regroupées par empreinte de token puis écrites en batch JDBC ; lastActivity
+ * peut avoir jusqu'à un intervalle de flush de retard et ne recule jamais.
+ */
+@Component
+@Slf4j
+public class SessionActivityTracker {
+
+    // Empreinte indexée (unique) : aucune lecture préalable pour retrouver l'id de la session
+    private static final String UPDATE_LAST_ACTIVITY =
+            "UPDATE user_sessions SET last_activity = ? " +
+            "WHERE session_token_hash = ? AND active = true AND last_activity < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int flushBatchSize;
+    private final int maxPending;
+
+    private final ConcurrentHashMap<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public SessionActivityTracker(
+            JdbcTemplate jdbcTemplate,
+            @Value("${security.sessions.flush-batch-size:500}") int flushBatchSize,
+            @Value("${security.sessions.max-pending:100000}") int maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushBatchSize = flushBatchSize;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Note l'activité d'une session (fusionnée avec les activités en attente)
+     * L'en-tête X-Session-Token venant du client, le nombre d'entrées en attente est borné.
+     */
+    public void recordActivity(String sessionToken) {
+        String key = TokenHasher.toKey(TokenHasher.sha256(sessionToken));
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            dropped.increment();
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        pending.merge(key, now, (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    /**
+     * Écrit les dates d'activité en attente, par batchs
+     */
+    @Scheduled(fixedDelayString = "${security.sessions.flush-interval:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<String, LocalDateTime>> batch = new ArrayList<>(pending.size());
+        for (Map.Entry<String, LocalDateTime> entry : pending.entrySet()) {
+            // remove(key, value) : une activité plus récente arrivée entre-temps reste en attente
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        int written = 0;
+        try {
+            for (; written < batch.size(); written += flushBatchSize) {
+                List<Map.Entry<String, LocalDateTime>> chunk =
+                        batch.subList(written, Math.min(batch.size(), written + flushBatchSize));
+                jdbcTemplate.batchUpdate(UPDATE_LAST_ACTIVITY, chunk, chunk.size(), (ps, entry) -> {
+                    Timestamp lastActivity = Timestamp.valueOf(entry.getValue());
+                    ps.setTimestamp(1, lastActivity);
+                    ps.setBytes(2, TokenHasher.fromKey(entry.getKey()));
+                    ps.setTimestamp(3, lastActivity);
+                });
+                flushed.add(chunk.size());
+            }
+        } catch (Exception e) {
+            // Réinjecte les valeurs non écrites pour le prochain flush
+            for (Map.Entry<String, LocalDateTime> entry : batch.subList(written, batch.size())) {
+                pending.merge(entry.getKey(), entry.getValue(),
+                        (previous, current) -> current.isAfter(previous) ? current : previous);
+            }
+            log.error("Error flushing session activity, {} sessions kept pending", batch.size() - written, e);
+        }
+    }
+
+    /**
+     * Flush final à l'arrêt de l'application
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public SessionActivityStatsResponse getStats() {
+        return SessionActivityStatsResponse.builder()
+                .pendingActivity(pending.size())
+                .flushedActivity(flushed.sum())
+                .droppedActivity(dropped.sum())
+                .build();
+    }
+}
@@ -8,13 +8,17 @@ import com.secureauth.exceptions.ResourceNotFoundException;
 import com.secureauth.repositories.UserRepository;
 import com.secureauth.repositories.UserSessionRepository;
 import com.secureauth.utils.NetworkUtils;
+import com.secureauth.utils.TokenHasher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -27,30 +31,40 @@ public class SessionManagementService {
     private final UserSessionRepository sessionRepository;
     private final UserRepository userRepository;
     private final AuditService auditService;
+    private final SessionActivityTracker sessionActivityTracker;
+    private final CleanupJobExecutor cleanupJobExecutor;
+    private final JobLeaseManager jobLeaseManager;
 
     private static final int MAX_CONCURRENT_SESSIONS = 3;
     private static final int SESSION_DURATION_HOURS = 24;
-
+    private static final long CLEANUP_LEASE_AT_MOST = 30 * 60_000L;
+    private static final long CLEANUP_LEASE_AT_LEAST = 55 * 60_000L;
+
+    private static final String INVALIDATE_EXPIRED_SESSIONS =
+            "UPDATE user_sessions SET active = false WHERE id IN (" +
+            "SELECT id FROM user_sessions WHERE active = true AND expires_at < ? " +
+            "LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private static final String DELETE_INACTIVE_SESSIONS =
+            "DELETE FROM user_sessions WHERE id IN (" +
+            "SELECT id FROM user_sessions WHERE active = false AND expires_at < ? " +
+            "LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    // Suppression des sessions inactives : opt-in (0 = conservées), elles servent d'historique de connexion
+    @Value("${security.cleanup.session-retention-days:0}")
+    private int sessionRetentionDays;
+
+    /**
+     * Crée une session ; la limite de sessions simultanées est appliquée en base,
+     * en une requête, pour rester correcte quand les connexions arrivent sur plusieurs instances
+     */
     @Transactional
     public UserSession createSession(User user, String ipAddress, String userAgent) {
-        // Check concurrent sessions limit
-        long activeSessions = sessionRepository.countByUserIdAndActiveTrue(user.getId());
-        
-        if (activeSessions >= MAX_CONCURRENT_SESSIONS) {
-            // Invalidate oldest session
-            List<UserSession> sessions = sessionRepository.findByUserIdAndActiveTrue(user.getId());
-            sessions.stream()
-                    .min((s1, s2) -> s1.getLoginTime().compareTo(s2.getLoginTime()))
-                    .ifPresent(oldestSession -> {
-                        oldestSession.invalidate();
-                        sessionRepository.save(oldestSession);
-                        log.info("Invalidated oldest session for user: {} due to concurrent session limit", user.getUsername());
-                    });
-        }
-
+        String sessionToken = UUID.randomUUID().toString();
         UserSession session = UserSession.builder()
                 .user(user)
-                .sessionToken(UUID.randomUUID().toString())
+                .sessionToken(sessionToken)
+                .sessionTokenHash(TokenHasher.sha256(sessionToken))
                 .ipAddress(ipAddress)
                 .userAgent(userAgent)
                 .loginTime(LocalDateTime.now())
@@ -59,7 +73,13 @@ public class SessionManagementService {
                 .active(true)
                 .build();
 
-        UserSession saved = sessionRepository.save(session);
+        UserSession saved = sessionRepository.saveAndFlush(session);
+
+        int evicted = sessionRepository.invalidateBeyondLimit(user.getId(), MAX_CONCURRENT_SESSIONS);
+        if (evicted > 0) {
+            log.info("Invalidated {} oldest session(s) for user: {} due to concurrent session limit",
+                    evicted, user.getUsername());
+        }
         
         auditService.logAction("SESSION_CREATED", user.getUsername(), 
                 "New session from IP: " + ipAddress, true);
@@ -67,13 +87,11 @@ public class SessionManagementService {
         return saved;
     }
 
-    @Transactional
+    /**
+     * Activité d'une session : fusionnée en mémoire, écrite en base par lots
+     */
     public void updateSessionActivity(String sessionToken) {
-        sessionRepository.findBySessionToken(sessionToken)
-                .ifPresent(session -> {
-                    session.updateActivity();
-                    sessionRepository.save(session);
-                });
+        sessionActivityTracker.recordActivity(sessionToken);
     }
 
     @Transactional
@@ -102,17 +120,12 @@ public class SessionManagementService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
 
-        List<UserSession> sessions = sessionRepository.findByUserIdAndActiveTrue(user.getId());
-        
-        sessions.forEach(session -> {
-            session.invalidate();
-            sessionRepository.save(session);
-        });
+        int invalidated = sessionRepository.invalidateAllByUserId(user.getId());
 
         auditService.logAction("ALL_SESSIONS_INVALIDATED", username, 
-                sessions.size() + " sessions invalidated", true);
+                invalidated + " sessions invalidated", true);
         
-        log.info("All sessions invalidated for user: {}, count: {}", username, sessions.size());
+        log.info("All sessions invalidated for user: {}, count: {}", username, invalidated);
     }
 
     public List<SessionResponse> getUserActiveSessions(String username, String currentSessionToken) {
@@ -120,6 +133,7 @@ public class SessionManagementService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
 
         List<UserSession> sessions = sessionRepository.findByUserIdAndActiveTrue(user.getId());
+        byte[] currentTokenHash = currentSessionToken != null ? TokenHasher.sha256(currentSessionToken) : null;
         
         log.debug("Found {} active sessions for user: {}", sessions.size(), username);
 
@@ -132,24 +146,21 @@ public class SessionManagementService {
                         .loginTime(session.getLoginTime())
                         .lastActivity(session.getLastActivity())
                         .active(session.getActive())
-                        .currentSession(currentSessionToken != null && session.getSessionToken().equals(currentSessionToken))
+                        .currentSession(Arrays.equals(session.getSessionTokenHash(), currentTokenHash))
                         .build())
                 .collect(Collectors.toList());
     }
 
     @Scheduled(fixedRate = 3600000) // Run every hour
-    @Transactional
     public void cleanupExpiredSessions() {
-        List<UserSession> expiredSessions = sessionRepository
-                .findByExpiresAtBeforeAndActiveTrue(LocalDateTime.now());
-
-        expiredSessions.forEach(session -> {
-            session.invalidate();
-            sessionRepository.save(session);
+        // Une seule instance par heure
+        jobLeaseManager.runExclusively("cleanup-expired-sessions", CLEANUP_LEASE_AT_MOST, CLEANUP_LEASE_AT_LEAST, () -> {
+            cleanupJobExecutor.update("expired-sessions", INVALIDATE_EXPIRED_SESSIONS,
+                    Timestamp.valueOf(LocalDateTime.now()));
+            if (sessionRetentionDays > 0) {
+                cleanupJobExecutor.update("inactive-sessions", DELETE_INACTIVE_SESSIONS,
+                        Timestamp.valueOf(LocalDateTime.now().minusDays(sessionRetentionDays)));
+            }
         });
-
-        if (!expiredSessions.isEmpty()) {
-            log.info("Cleaned up {} expired sessions", expiredSessions.size());
-        }
     }
 }
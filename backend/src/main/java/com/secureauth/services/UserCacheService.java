@@ -0,0 +1,111 @@
+package com.secureauth.services;
+
+import com.secureauth.dto.CacheStatsResponse;
+import com.secureauth.entities.User;
+import com.secureauth.utils.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+
+/**
+ * Cache des UserDetails utilisés par le filtre d'authentification
+ * Stocke un instantané immuable (statut + autorités aplaties) pour éviter une requête par appel
+ * Les invalidations sont propagées aux autres instances (ClusterCacheInvalidator) ;
+ * le TTL ne borne plus que le cas d'une notification perdue
+ */
+@Service
+@Slf4j
+public class UserCacheService {
+
+    private static final String CACHE_NAME = "user-details";
+
+    private final BoundedTtlCache<String, UserDetails> cache;
+    private final ClusterCacheInvalidator clusterInvalidator;
+    private final boolean enabled;
+
+    public UserCacheService(
+            ClusterCacheInvalidator clusterInvalidator,
+            @Value("${security.user-cache.enabled:true}") boolean enabled,
+            @Value("${security.user-cache.max-size:10000}") int maxSize,
+            @Value("${security.user-cache.ttl:60000}") long ttlMillis) {
+        this.clusterInvalidator = clusterInvalidator;
+        this.enabled = enabled;
+        this.cache = new BoundedTtlCache<>(maxSize, ttlMillis);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        clusterInvalidator.subscribe(CACHE_NAME, cache::invalidate, cache::invalidateAll);
+    }
+
+    /**
+     * Retourne l'instantané en cache ou le construit à partir du loader
+     */
+    public UserDetails get(String username, Function<String, User> loader) {
+        if (!enabled) {
+            return snapshot(loader.apply(username));
+        }
+        return cache.get(username, key -> snapshot(loader.apply(key)));
+    }
+
+    /**
+     * Invalide un utilisateur immédiatement, puis à nouveau après le commit
+     * pour ne pas laisser un chargement concurrent réinsérer l'état d'avant le commit ;
+     * les autres instances l'invalident à la réception du commit
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.invalidate(username);
+        afterCommit(() -> cache.invalidate(username));
+        clusterInvalidator.publish(CACHE_NAME, username);
+        log.debug("User cache evicted: {}", username);
+    }
+
+    /**
+     * Vide le cache (changement de rôle ou de permission touchant plusieurs utilisateurs)
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+        afterCommit(cache::invalidateAll);
+        clusterInvalidator.publishAll(CACHE_NAME);
+        log.debug("User cache cleared");
+    }
+
+    /**
+     * Statistiques du cache (dimensionnement)
+     */
+    public CacheStatsResponse getStats() {
+        return CacheStatsResponse.of(CACHE_NAME, cache);
+    }
+
+    private UserDetails snapshot(User user) {
+        return org.springframework.security.core.userdetails.User
+                .withUsername(user.getUsername())
+                .password(user.getPassword())
+                .authorities(user.getAuthorities())
+                .disabled(!user.isEnabled())
+                .accountLocked(!user.isAccountNonLocked())
+                .accountExpired(!user.isAccountNonExpired())
+                .credentialsExpired(!user.isCredentialsNonExpired())
+                .build();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -42,6 +42,9 @@ public class UserService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final UserSessionRepository userSessionRepository;
     private final ApiKeyRepository apiKeyRepository;
+    private final UserCacheService userCacheService;
+    private final ApiKeyService apiKeyService;
+    private final SecurityAlertEngine securityAlertEngine;
 
     private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789@#$%";
     private static final int PASSWORD_LENGTH = 12;
@@ -172,6 +175,7 @@ public class UserService {
 
         if (request.getEnabled() != null) {
             user.setEnabled(request.getEnabled());
+            user.incrementTokenVersion();
             String action = request.getEnabled() ? AuditLog.Action.USER_ENABLED : AuditLog.Action.USER_DISABLED;
             auditService.logSuccess(adminUsername, action, "Utilisateur: " + user.getUsername());
         }
@@ -182,11 +186,13 @@ public class UserService {
                             .orElseThrow(() -> new ResourceNotFoundException("Role", "name", roleName)))
                     .collect(Collectors.toSet());
             user.setRoles(roles);
+            user.incrementTokenVersion();
             auditService.logSuccess(adminUsername, AuditLog.Action.ROLE_ASSIGNED, 
                     "Rôles mis à jour pour: " + user.getUsername());
         }
 
         user = userRepository.save(user);
+        userCacheService.evict(user.getUsername());
 
         auditService.logSuccess(adminUsername, AuditLog.Action.USER_UPDATED, 
                 "Utilisateur mis à jour: " + user.getUsername());
@@ -213,6 +219,9 @@ public class UserService {
         
         // Supprimer l'utilisateur
         userRepository.delete(user);
+        userCacheService.evict(username);
+        apiKeyService.evictUserKeys(id);
+        securityAlertEngine.accountUnlocked(username);
 
         auditService.logSuccess(adminUsername, AuditLog.Action.USER_DELETED, 
                 "Utilisateur supprimé: " + username);
@@ -229,7 +238,9 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
         user.setEnabled(!user.getEnabled());
+        user.incrementTokenVersion();
         user = userRepository.save(user);
+        userCacheService.evict(user.getUsername());
 
         String action = user.getEnabled() ? AuditLog.Action.USER_ENABLED : AuditLog.Action.USER_DISABLED;
         auditService.logSuccess(adminUsername, action, "Utilisateur: " + user.getUsername());
@@ -254,6 +265,8 @@ public class UserService {
 
         user.unlock();
         user = userRepository.save(user);
+        userCacheService.evict(user.getUsername());
+        securityAlertEngine.accountUnlocked(user.getUsername());
 
         auditService.logSuccess(adminUsername, AuditLog.Action.USER_UNLOCKED, 
                 "Utilisateur déverrouillé: " + user.getUsername());
@@ -287,6 +300,7 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         user.setMustChangePassword(false);
         userRepository.save(user);
+        userCacheService.evict(username);
 
         auditService.logSuccess(username, AuditLog.Action.PASSWORD_CHANGED, 
                 "Mot de passe changé avec succès");
@@ -415,7 +429,9 @@ public class UserService {
                 .collect(Collectors.toSet());
 
         user.setRoles(newRoles);
+        user.incrementTokenVersion();
         user = userRepository.save(user);
+        userCacheService.evict(user.getUsername());
 
         auditService.logSuccess(managerUsername, AuditLog.Action.USER_UPDATED, 
                 "Rôles mis à jour pour: " + user.getUsername());
@@ -434,7 +450,9 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
         user.setEnabled(request.getActive());
+        user.incrementTokenVersion();
         user = userRepository.save(user);
+        userCacheService.evict(user.getUsername());
 
         String action = request.getActive() ? AuditLog.Action.USER_ENABLED : AuditLog.Action.USER_DISABLED;
         auditService.logSuccess(managerUsername, action, 
@@ -459,6 +477,7 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(temporaryPassword));
         user.setMustChangePassword(true);
         user = userRepository.save(user);
+        userCacheService.evict(user.getUsername());
 
         auditService.logSuccess(adminUsername, AuditLog.Action.PASSWORD_RESET, 
                 "Mot de passe réinitialisé pour: " + user.getUsername());
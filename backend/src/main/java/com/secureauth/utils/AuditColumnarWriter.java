@@ -0,0 +1,186 @@
+package com.secureauth.utils;
+
+import com.secureauth.entities.AuditLog;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodeur binaire colonnaire pour l'export d'audit
+ * Les lignes sont regroupées en blocs de taille fixe : la mémoire reste bornée quel que soit le volume.
+ *
+ * Format (entiers en varint LEB128, signés en zigzag) :
+ * <pre>
+ * en-tête : "SAAC" + version (1 octet)
+ * bloc    : nbLignes
+ *           id           : deltas zigzag (le premier relatif à 0)
+ *           timestamp    : microsecondes epoch UTC, deltas zigzag
+ *           username     : dictionnaire (taille, chaînes) puis index par ligne (0 = null)
+ *           action       : idem
+ *           ipAddress    : idem
+ *           success      : bitmap, ceil(nbLignes / 8) octets
+ *           userAgent    : chaînes nullables (longueur + 1, 0 = null)
+ *           details      : idem
+ *           errorMessage : idem
+ * fin     : bloc de 0 ligne
+ * </pre>
+ */
+public class AuditColumnarWriter implements Closeable {
+
+    private static final byte[] MAGIC = {'S', 'A', 'A', 'C'};
+    private static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    private final int blockSize;
+    private final List<AuditLog> block;
+
+    public AuditColumnarWriter(OutputStream out, int blockSize) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.blockSize = blockSize;
+        this.block = new ArrayList<>(blockSize);
+        this.out.write(MAGIC);
+        this.out.writeByte(VERSION);
+    }
+
+    /**
+     * Ajoute une ligne ; le bloc est encodé dès qu'il est plein
+     */
+    public void write(AuditLog auditLog) throws IOException {
+        block.add(auditLog);
+        if (block.size() >= blockSize) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Encode le dernier bloc et le marqueur de fin, sans fermer le flux sous-jacent
+     */
+    @Override
+    public void close() throws IOException {
+        flushBlock();
+        writeVarLong(0);
+        out.flush();
+    }
+
+    private void flushBlock() throws IOException {
+        if (block.isEmpty()) {
+            return;
+        }
+        writeVarLong(block.size());
+
+        long previousId = 0;
+        for (AuditLog row : block) {
+            long id = row.getId() != null ? row.getId() : 0;
+            writeZigZag(id - previousId);
+            previousId = id;
+        }
+
+        long previousMicros = 0;
+        for (AuditLog row : block) {
+            long micros = toEpochMicros(row.getTimestamp());
+            writeZigZag(micros - previousMicros);
+            previousMicros = micros;
+        }
+
+        writeDictionaryColumn(block.stream().map(AuditLog::getUsername).toList());
+        writeDictionaryColumn(block.stream().map(AuditLog::getAction).toList());
+        writeDictionaryColumn(block.stream().map(AuditLog::getIpAddress).toList());
+
+        byte[] bitmap = new byte[(block.size() + 7) / 8];
+        for (int i = 0; i < block.size(); i++) {
+            if (Boolean.TRUE.equals(block.get(i).getSuccess())) {
+                bitmap[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        out.write(bitmap);
+
+        for (AuditLog row : block) {
+            writeNullableString(row.getUserAgent());
+        }
+        for (AuditLog row : block) {
+            writeNullableString(row.getDetails());
+        }
+        for (AuditLog row : block) {
+            writeNullableString(row.getErrorMessage());
+        }
+
+        block.clear();
+    }
+
+    /**
+     * Dictionnaire propre au bloc, dans l'ordre de première apparition
+     */
+    private void writeDictionaryColumn(List<String> values) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        int[] indexes = new int[values.size()];
+
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            Integer index = dictionary.get(value);
+            if (index == null) {
+                index = entries.size() + 1;
+                dictionary.put(value, index);
+                entries.add(value);
+            }
+            indexes[i] = index;
+        }
+
+        writeVarLong(entries.size());
+        for (String entry : entries) {
+            writeString(entry);
+        }
+        for (int index : indexes) {
+            writeVarLong(index);
+        }
+    }
+
+    private void writeNullableString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeZigZag(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long toEpochMicros(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return 0;
+        }
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), timestamp);
+    }
+}
@@ -0,0 +1,67 @@
+package com.secureauth.utils;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position de reprise pour la pagination par clé (keyset) des logs d'audit
+ * Encodée en jeton opaque : base64url de (microsecondes epoch UTC, id)
+ */
+@Getter
+public final class AuditLogCursor {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+    /**
+     * Position de départ : avant tout enregistrement (tri décroissant)
+     */
+    public static final AuditLogCursor START = new AuditLogCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    private final LocalDateTime timestamp;
+    private final long id;
+
+    public AuditLogCursor(LocalDateTime timestamp, long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    /**
+     * Encode la position en jeton opaque
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(ChronoUnit.MICROS.between(EPOCH, timestamp));
+        buffer.putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Décode un jeton ; null ou vide correspond à la première page
+     *
+     * @throws IllegalArgumentException si le jeton est invalide
+     */
+    public static AuditLogCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return START;
+        }
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        if (bytes.length != 16) {
+            throw new IllegalArgumentException("Invalid cursor length");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        LocalDateTime timestamp;
+        try {
+            timestamp = EPOCH.plus(buffer.getLong(), ChronoUnit.MICROS);
+        } catch (DateTimeException | ArithmeticException e) {
+            // Jeton forgé : horodatage hors de la plage de LocalDateTime
+            throw new IllegalArgumentException("Invalid cursor timestamp", e);
+        }
+        return new AuditLogCursor(timestamp, buffer.getLong());
+    }
+}
@@ -0,0 +1,32 @@
+package com.secureauth.utils;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Utilitaire pour partager les instances de GrantedAuthority
+ * Le catalogue de rôles/permissions est petit : une seule instance par nom suffit
+ */
+public final class AuthorityInterner {
+
+    private static final ConcurrentHashMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private AuthorityInterner() {
+    }
+
+    /**
+     * Retourne l'instance partagée pour ce nom d'autorité
+     */
+    public static GrantedAuthority of(String authority) {
+        return AUTHORITIES.computeIfAbsent(authority, SimpleGrantedAuthority::new);
+    }
+
+    /**
+     * Retourne l'instance partagée pour un rôle (préfixe ROLE_)
+     */
+    public static GrantedAuthority ofRole(String roleName) {
+        return of("ROLE_" + roleName);
+    }
+}
@@ -0,0 +1,37 @@
+package com.secureauth.utils;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serializable;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Ensemble d'autorités calculé à la première lecture et conservé jusqu'à réinitialisation
+ * Déclaré dans les entités en champ final initialisé : Lombok l'exclut du constructeur
+ * complet et du builder, aucun appelant ne peut donc y injecter un ensemble arbitraire
+ * Sérialisable pour les entités UserDetails : l'ensemble n'est pas sérialisé, il est recalculé
+ */
+public final class AuthorityMemo implements Serializable {
+
+    private transient volatile Set<GrantedAuthority> authorities;
+
+    /**
+     * Retourne l'ensemble mémorisé, ou le calcule et le mémorise
+     */
+    public Set<GrantedAuthority> get(Supplier<Set<GrantedAuthority>> compute) {
+        Set<GrantedAuthority> cached = authorities;
+        if (cached == null) {
+            cached = compute.get();
+            authorities = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Oublie l'ensemble mémorisé (rôles ou permissions modifiés)
+     */
+    public void reset() {
+        authorities = null;
+    }
+}
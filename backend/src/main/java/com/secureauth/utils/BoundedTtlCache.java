@@ -0,0 +1,180 @@
+package com.secureauth.utils;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Cache mémoire borné avec expiration (TTL)
+ * Thread-safe, sans verrou sur le chemin de lecture, avec compteurs hit/miss/eviction
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Incrémenté à chaque invalidation : un chargement concurrent ne réinsère pas une valeur périmée
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    public BoundedTtlCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+    }
+
+    /**
+     * Retourne la valeur en cache ou la charge avec le loader
+     * Le loader n'est pas mis en cache s'il retourne null
+     */
+    public V get(K key, Function<K, V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long epoch = invalidationEpoch.get();
+        V loaded = loader.apply(key);
+        if (loaded != null && invalidationEpoch.get() == epoch) {
+            put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Retourne la valeur en cache si elle existe et n'est pas expirée
+     */
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Ajoute une valeur, en libérant de la place si la taille maximale est atteinte
+     */
+    public void put(K key, V value) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            makeRoom();
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Invalide une entrée
+     */
+    public void invalidate(K key) {
+        invalidationEpoch.incrementAndGet();
+        if (entries.remove(key) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Invalide les entrées dont la valeur satisfait le prédicat
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        invalidationEpoch.incrementAndGet();
+        entries.entrySet().removeIf(e -> {
+            if (predicate.test(e.getValue().value)) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Vide complètement le cache
+     */
+    public void invalidateAll() {
+        invalidationEpoch.incrementAndGet();
+        int size = entries.size();
+        entries.clear();
+        evictions.add(size);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTtlMillis() {
+        return ttlNanos / 1_000_000;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Supprime les entrées les plus proches de l'expiration jusqu'à repasser sous la limite
+     */
+    private void makeRoom() {
+        while (entries.size() >= maxSize) {
+            K oldestKey = null;
+            long oldestExpiry = 0;
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            // Échantillonnage borné pour ne pas parcourir tout le cache
+            for (int i = 0; i < 16 && it.hasNext(); i++) {
+                Map.Entry<K, Entry<V>> e = it.next();
+                if (oldestKey == null || e.getValue().expiresAt - oldestExpiry < 0) {
+                    oldestExpiry = e.getValue().expiresAt;
+                    oldestKey = e.getKey();
+                }
+            }
+            if (oldestKey == null) {
+                return;
+            }
+            if (entries.remove(oldestKey) != null) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
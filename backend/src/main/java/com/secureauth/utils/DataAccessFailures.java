@@ -0,0 +1,57 @@
+package com.secureauth.utils;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+
+/**
+ * Classement des échecs d'écriture en base
+ * - transitoire : connexion, délai, ressources, conflit de verrou ; l'opération peut être retentée telle quelle
+ * - sinon : données ou contrainte rejetées ; retenter la même ligne échouera encore
+ */
+public final class DataAccessFailures {
+
+    private DataAccessFailures() {
+    }
+
+    /**
+     * Vrai si l'échec tient à la disponibilité de la base et non aux données écrites
+     */
+    public static boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof TransactionTimedOutException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException
+                    || cause instanceof IOException) {
+                return true;
+            }
+            if (cause instanceof SQLException sql && isTransientSqlState(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Classes SQLSTATE PostgreSQL : 08 connexion, 40 sérialisation/interblocage,
+     * 53 ressources insuffisantes, 57 intervention de l'opérateur (arrêt, annulation, délai)
+     */
+    private static boolean isTransientSqlState(String sqlState) {
+        if (sqlState == null || sqlState.length() < 2) {
+            return false;
+        }
+        String sqlClass = sqlState.substring(0, 2);
+        return sqlClass.equals("08") || sqlClass.equals("40") || sqlClass.equals("53") || sqlClass.equals("57");
+    }
+}
@@ -0,0 +1,55 @@
+package com.secureauth.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de latences à bornes fixes (en millisecondes), sans verrou
+ */
+public class LatencyHistogram {
+
+    private static final long[] BOUNDS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long millis = nanos / 1_000_000;
+        int i = 0;
+        while (i < BOUNDS_MILLIS.length && millis >= BOUNDS_MILLIS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        count.increment();
+        totalNanos.add(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / n;
+    }
+
+    /**
+     * Nombre d'observations par tranche : "<1ms", "<2ms", ..., ">=5000ms"
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            snapshot.put("<" + BOUNDS_MILLIS[i] + "ms", buckets[i].sum());
+        }
+        snapshot.put(">=" + BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1] + "ms", buckets[BOUNDS_MILLIS.length].sum());
+        return snapshot;
+    }
+}
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.util.Enumeration;
+import java.util.regex.Pattern;
 
 /**
  * Utilitaire pour les opérations réseau
@@ -13,6 +14,8 @@ import java.util.Enumeration;
 @Slf4j
 public class NetworkUtils {
 
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9A-Fa-f:.]{2,45}");
+
     /**
      * Obtient l'adresse IP du client
      * Priorité: VPN > IP réelle du client > IP réseau locale
@@ -44,7 +47,14 @@ public class NetworkUtils {
             if (ipAddress != null && !ipAddress.isEmpty() && !"unknown".equalsIgnoreCase(ipAddress)) {
                 // X-Forwarded-For peut contenir plusieurs IPs, prendre la première (client original)
                 if (ipAddress.contains(",")) {
-                    ipAddress = ipAddress.split(",")[0].trim();
+                    ipAddress = ipAddress.split(",")[0];
+                }
+                ipAddress = ipAddress.trim();
+                // Valeur fournie par le client : ignorée si ce n'est pas une adresse IP littérale
+                if (!isIpLiteral(ipAddress)) {
+                    log.debug("Ignoring malformed IP in header {}", header);
+                    ipAddress = null;
+                    continue;
                 }
                 log.debug("IP found in header {}: {}", header, ipAddress);
                 
@@ -81,6 +91,14 @@ public class NetworkUtils {
         return ipAddress;
     }
     
+    /**
+     * Vérifie que la valeur a la forme d'une adresse IPv4 ou IPv6 (sans résolution DNS)
+     * Longueur bornée à celle d'une IPv6 la plus longue (45 caractères)
+     */
+    private static boolean isIpLiteral(String value) {
+        return value != null && IP_LITERAL.matcher(value).matches();
+    }
+
     /**
      * Vérifie si l'IP est une adresse publique (non privée, non localhost)
      */
@@ -0,0 +1,179 @@
+package com.secureauth.utils;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limiteur de débit par clé (algorithme GCRA, équivalent à un token bucket)
+ * Chaque clé tient dans un seul AtomicLong (heure théorique d'arrivée) mis à jour par CAS : sans verrou.
+ * Une clé inactive dont le seau est plein est équivalente à une clé absente et peut être évincée.
+ * Table pleine (ex. attaque sur un grand nombre de clés distinctes) : les clés inactives sont évincées,
+ * sinon le dixième le moins récemment utilisé. Chaque clé garde toujours son propre seau : des clients
+ * sans rapport ne partagent jamais une limite par client. Une clé active (attaquant insistant sur
+ * une cible) reste la plus récente et n'est pas évincée ; une clé évincée repart d'un seau plein.
+ */
+public class RateLimiter {
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final long periodNanos;
+    private final int maxKeys;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictedLeastRecent = new LongAdder();
+    private final AtomicBoolean makingRoom = new AtomicBoolean();
+
+    /**
+     * @param limit        nombre de tentatives autorisées par période (et taille de la rafale)
+     * @param periodMillis durée de la période
+     * @param maxKeys      nombre maximal de clés suivies
+     */
+    public RateLimiter(int limit, long periodMillis, int maxKeys) {
+        this.emissionIntervalNanos = periodMillis * 1_000_000 / Math.max(1, limit);
+        this.burstToleranceNanos = emissionIntervalNanos * (Math.max(1, limit) - 1);
+        this.periodNanos = periodMillis * 1_000_000;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Consomme une tentative pour la clé
+     *
+     * @return 0 si autorisé, sinon le délai d'attente en millisecondes avant la prochaine tentative
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        Bucket bucket = bucketFor(key, now);
+        while (true) {
+            long tat = bucket.tat.get();
+            long start = Math.max(tat, now);
+            long waitNanos = start - now - burstToleranceNanos;
+            if (waitNanos > 0) {
+                rejected.increment();
+                return Math.max(1, waitNanos / 1_000_000);
+            }
+            if (bucket.tat.compareAndSet(tat, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Rend à la clé sa capacité complète (ex. après une connexion réussie)
+     */
+    public void reset(String key) {
+        buckets.remove(key);
+    }
+
+    /**
+     * Supprime les clés dont le seau est de nouveau plein
+     * (une tentative concurrente sur une clé évincée peut ne pas être comptée : sans conséquence)
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        Iterator<Bucket> it = buckets.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().tat.get() - now <= 0) {
+                it.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Indique si un rejet doit être signalé (ex. audit) : au plus une fois par période et par clé
+     */
+    public boolean shouldReport(String key) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            // Clé évincée entre-temps : rejet déjà signalé ou sans suite
+            return false;
+        }
+        long now = System.nanoTime();
+        long last = bucket.lastReport.get();
+        if (last != 0 && now - last < periodNanos) {
+            return false;
+        }
+        return bucket.lastReport.compareAndSet(last, now);
+    }
+
+    private Bucket bucketFor(String key, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                makeRoom(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+        }
+        bucket.lastSeen = now;
+        return bucket;
+    }
+
+    /**
+     * Table pleine : évince les clés inactives, sinon les moins récemment utilisées jusqu'à 90 % de la capacité
+     * Un seul balayage à la fois ; pendant ce temps la table peut dépasser brièvement maxKeys.
+     * Le balayage libère un dixième de la table : son coût est réparti sur autant de nouvelles clés.
+     */
+    private void makeRoom(long now) {
+        if (!makingRoom.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            evictIdle();
+            int excess = buckets.size() - (maxKeys - Math.max(1, maxKeys / 10));
+            if (excess <= 0) {
+                return;
+            }
+            long[] lastSeen = buckets.values().stream().mapToLong(b -> b.lastSeen - now).toArray();
+            if (lastSeen.length == 0) {
+                return;
+            }
+            Arrays.sort(lastSeen);
+            long threshold = lastSeen[Math.min(excess, lastSeen.length) - 1];
+            int evicted = 0;
+            Iterator<Bucket> it = buckets.values().iterator();
+            while (it.hasNext() && evicted < excess) {
+                if (it.next().lastSeen - now <= threshold) {
+                    it.remove();
+                    evicted++;
+                }
+            }
+            evictedLeastRecent.add(evicted);
+        } finally {
+            makingRoom.set(false);
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Clés actives évincées faute de place (table pleine, aucune clé inactive)
+     */
+    public long getEvictedLeastRecent() {
+        return evictedLeastRecent.sum();
+    }
+
+    private static final class Bucket {
+        private final AtomicLong tat;
+        private final AtomicLong lastReport = new AtomicLong();
+        // Dernière utilisation (nanoTime), pour l'éviction des moins récemment utilisées
+        private volatile long lastSeen;
+
+        private Bucket(long now) {
+            this.tat = new AtomicLong(now);
+            this.lastSeen = now;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.secureauth.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Empreinte SHA-256 des tokens opaques (sessions, refresh tokens)
+ * Seule l'empreinte (32 octets) est stockée ; le token en clair n'est connu que du client.
+ * Les tokens étant aléatoires (au moins 122 bits), un hash rapide sans sel suffit.
+ */
+public final class TokenHasher {
+
+    public static final int HASH_LENGTH = 32;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    });
+
+    private TokenHasher() {
+    }
+
+    public static byte[] sha256(String token) {
+        return SHA256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Représentation compacte d'une empreinte, utilisable comme clé de Map
+     */
+    public static String toKey(byte[] hash) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    /**
+     * Empreinte correspondant à une clé produite par {@link #toKey(byte[])}
+     */
+    public static byte[] fromKey(String key) {
+        return Base64.getUrlDecoder().decode(key);
+    }
+}
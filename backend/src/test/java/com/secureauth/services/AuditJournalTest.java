@@ -0,0 +1,221 @@
+package com.secureauth.services;
+
+import com.secureauth.entities.AuditLog;
+import com.secureauth.repositories.AuditLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class AuditJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final AuditLogRepository repository = mock(AuditLogRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final List<AuditLog> database = new ArrayList<>();
+    private final AtomicBoolean databaseUp = new AtomicBoolean(true);
+    // Nombre de lots acceptés avant l'arrêt de la base (-1 : illimité)
+    private final AtomicInteger writesBeforeOutage = new AtomicInteger(-1);
+
+    private AuditJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Base simulée : saveAll échoue tant qu'elle est "arrêtée" ; un lot contenant "bad" viole une contrainte
+        doAnswer(invocation -> {
+            if (writesBeforeOutage.get() == 0) {
+                databaseUp.set(false);
+            }
+            if (!databaseUp.get()) {
+                throw new DataAccessResourceFailureException("Connection refused");
+            }
+            Iterable<AuditLog> batch = invocation.getArgument(0);
+            for (AuditLog event : batch) {
+                if (event.getUsername().startsWith("bad")) {
+                    throw new DataIntegrityViolationException("value too long for type character varying(50)");
+                }
+            }
+            batch.forEach(database::add);
+            writesBeforeOutage.decrementAndGet();
+            return null;
+        }).when(repository).saveAll(any());
+
+        journal = newJournal(4096);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void replayLoadsJournaledEventsInOrder() {
+        assertThat(journal.append(List.of(event("alice"), event("bob")))).isTrue();
+        assertThat(journal.append(List.of(event("carol")))).isTrue();
+
+        journal.replay();
+
+        assertThat(database).extracting(AuditLog::getUsername).containsExactly("alice", "bob", "carol");
+        assertThat(journal.getReplayed()).isEqualTo(3);
+        assertThat(journal.getPendingSegments()).isZero();
+    }
+
+    @Test
+    void replayIsPostponedWhileDatabaseIsDown() {
+        journal.append(List.of(event("alice")));
+        databaseUp.set(false);
+
+        journal.replay();
+
+        assertThat(database).isEmpty();
+        assertThat(journal.getPendingSegments()).isEqualTo(1);
+
+        databaseUp.set(true);
+        journal.replay();
+
+        assertThat(database).extracting(AuditLog::getUsername).containsExactly("alice");
+        assertThat(journal.getPendingSegments()).isZero();
+    }
+
+    @Test
+    void rejectedRowIsQuarantinedWithoutBlockingLaterSegments() throws IOException {
+        journal.close();
+        journal = newJournal(1024, 500);
+
+        journal.append(List.of(event("alice"), event("bad-ip"), event("bob")));
+        for (int i = 0; i < 10; i++) {
+            journal.append(List.of(event("user" + i)));
+        }
+        assertThat(segments()).hasSizeGreaterThan(1);
+
+        journal.replay();
+
+        assertThat(database).extracting(AuditLog::getUsername)
+                .startsWith("alice", "bob", "user0")
+                .doesNotContain("bad-ip")
+                .hasSize(12);
+        assertThat(journal.getQuarantined()).isEqualTo(1);
+        assertThat(journal.getPendingSegments()).isZero();
+        assertThat(Files.readString(directory.resolve("quarantine.ndjson")))
+                .contains("bad-ip")
+                .contains("character varying(50)");
+    }
+
+    @Test
+    void replayResumesAfterLastCommittedBatch() throws IOException {
+        journal.close();
+        journal = newJournal(4096, 2);
+
+        journal.append(List.of(event("e1"), event("e2"), event("e3"), event("e4"), event("e5")));
+        writesBeforeOutage.set(1); // la base tombe après le premier lot de 2
+
+        journal.replay();
+
+        assertThat(database).extracting(AuditLog::getUsername).containsExactly("e1", "e2");
+
+        writesBeforeOutage.set(-1);
+        databaseUp.set(true);
+        journal.replay();
+
+        assertThat(database).extracting(AuditLog::getUsername).containsExactly("e1", "e2", "e3", "e4", "e5");
+        assertThat(journal.getPendingSegments()).isZero();
+    }
+
+    @Test
+    void corruptedRecordStopsSegmentReplay() throws IOException {
+        journal.append(List.of(event("alice"), event("bob")));
+        databaseUp.set(false);
+        journal.replay(); // scelle le segment
+
+        // Altère un octet de la charge utile du second enregistrement
+        Path segment = segments().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        int firstLength = ByteBuffer.wrap(bytes).getInt(0);
+        bytes[8 + firstLength + 8 + 1] ^= 0x01;
+        Files.write(segment, bytes);
+
+        databaseUp.set(true);
+        journal.replay();
+
+        assertThat(database).extracting(AuditLog::getUsername).containsExactly("alice");
+        assertThat(journal.getCorrupted()).isEqualTo(1);
+    }
+
+    @Test
+    void fullSegmentRollsOverAndAllSegmentsAreReplayed() throws IOException {
+        journal.close();
+        journal = newJournal(1024);
+
+        for (int i = 0; i < 20; i++) {
+            journal.append(List.of(event("user" + i)));
+        }
+        assertThat(segments()).hasSizeGreaterThan(1);
+
+        journal.replay();
+
+        assertThat(database).hasSize(20);
+        assertThat(database.get(0).getUsername()).isEqualTo("user0");
+        assertThat(database.get(19).getUsername()).isEqualTo("user19");
+    }
+
+    @Test
+    void segmentsOfPreviousRunAreReplayedAfterRestart() throws IOException {
+        journal.append(List.of(event("before-crash")));
+        journal.close();
+
+        journal = newJournal(4096);
+        journal.append(List.of(event("after-restart")));
+        journal.replay();
+
+        assertThat(database).extracting(AuditLog::getUsername).containsExactly("before-crash", "after-restart");
+    }
+
+    private AuditJournal newJournal(int segmentSize) throws IOException {
+        return newJournal(segmentSize, 500);
+    }
+
+    private AuditJournal newJournal(int segmentSize, int replayBatchSize) throws IOException {
+        AuditJournal newJournal = new AuditJournal(repository, transactionManager,
+                directory.toString(), segmentSize, false, replayBatchSize);
+        newJournal.init();
+        return newJournal;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    static AuditLog event(String username) {
+        return AuditLog.builder()
+                .username(username)
+                .action(AuditLog.Action.LOGIN_FAILED)
+                .details("Mot de passe incorrect")
+                .ipAddress("10.0.0.1")
+                .success(false)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
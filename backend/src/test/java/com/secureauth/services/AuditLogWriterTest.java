@@ -0,0 +1,124 @@
+package com.secureauth.services;
+
+import com.secureauth.entities.AuditLog;
+import com.secureauth.repositories.AuditLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Arrêt de la base pendant l'écriture de l'audit : aucun événement perdu, tout est rejoué au retour
+ */
+class AuditLogWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private final AuditLogRepository repository = mock(AuditLogRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final List<String> database = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean databaseUp = new AtomicBoolean(true);
+
+    @Test
+    void noEventIsLostWhenDatabaseIsKilledAndRestarted() throws Exception {
+        doAnswer(invocation -> {
+            if (!databaseUp.get()) {
+                throw new DataAccessResourceFailureException("Connection refused");
+            }
+            Iterable<AuditLog> batch = invocation.getArgument(0);
+            batch.forEach(event -> database.add(event.getUsername()));
+            return null;
+        }).when(repository).saveAll(any());
+
+        AuditJournal journal = new AuditJournal(repository, transactionManager, directory.toString(), 65_536, false, 500);
+        journal.init();
+        AuditLogWriter writer = new AuditLogWriter(repository, transactionManager, journal,
+                true, 16, 8, AuditLogWriter.OverflowPolicy.BLOCK, 10);
+        writer.start();
+
+        for (int i = 0; i < 50; i++) {
+            writer.submit(AuditJournalTest.event("up-" + i));
+        }
+        databaseUp.set(false); // base arrêtée
+        for (int i = 0; i < 200; i++) {
+            writer.submit(AuditJournalTest.event("down-" + i));
+        }
+        writer.stop();
+
+        databaseUp.set(true); // base redémarrée
+        journal.replay();
+        journal.close();
+
+        assertThat(database).hasSize(250).doesNotHaveDuplicates();
+        assertThat(writer.getStats().getDropped()).isZero();
+        assertThat(journal.getPendingSegments()).isZero();
+    }
+
+    @Test
+    void rejectedRowIsQuarantinedAndTheRestOfTheBatchIsWritten() throws Exception {
+        doAnswer(invocation -> {
+            Iterable<AuditLog> batch = invocation.getArgument(0);
+            for (AuditLog event : batch) {
+                if (event.getUsername().startsWith("bad")) {
+                    throw new DataIntegrityViolationException("null value in column \"action\"");
+                }
+            }
+            batch.forEach(event -> database.add(event.getUsername()));
+            return null;
+        }).when(repository).saveAll(any());
+
+        AuditJournal journal = new AuditJournal(repository, transactionManager, directory.toString(), 65_536, false, 500);
+        journal.init();
+        AuditLogWriter writer = new AuditLogWriter(repository, transactionManager, journal,
+                true, 64, 32, AuditLogWriter.OverflowPolicy.BLOCK, 10);
+        writer.start();
+
+        for (int i = 0; i < 20; i++) {
+            writer.submit(AuditJournalTest.event(i == 7 ? "bad-7" : "ok-" + i));
+        }
+        writer.stop();
+        journal.close();
+
+        assertThat(database).hasSize(19).doesNotContain("bad-7");
+        assertThat(journal.getQuarantined()).isEqualTo(1);
+        assertThat(writer.getStats().getSpilled()).isZero();
+    }
+
+    @Test
+    void clientSuppliedValuesAreClampedToColumnLengths() throws Exception {
+        List<AuditLog> saved = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            Iterable<AuditLog> batch = invocation.getArgument(0);
+            batch.forEach(saved::add);
+            return null;
+        }).when(repository).saveAll(any());
+
+        AuditJournal journal = new AuditJournal(repository, transactionManager, directory.toString(), 65_536, false, 500);
+        journal.init();
+        AuditLogWriter writer = new AuditLogWriter(repository, transactionManager, journal,
+                false, 16, 8, AuditLogWriter.OverflowPolicy.BLOCK, 10);
+
+        AuditLog event = AuditJournalTest.event("alice");
+        event.setIpAddress("1.2.3.4".repeat(20));
+        event.setUserAgent("x".repeat(1000));
+        writer.submit(event);
+        journal.close();
+
+        assertThat(saved).singleElement().satisfies(log -> {
+            assertThat(log.getIpAddress()).hasSize(AuditLog.IP_ADDRESS_LENGTH);
+            assertThat(log.getUserAgent()).hasSize(AuditLog.USER_AGENT_LENGTH);
+        });
+    }
+}
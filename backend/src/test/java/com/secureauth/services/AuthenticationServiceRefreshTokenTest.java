@@ -0,0 +1,207 @@
+package com.secureauth.services;
+
+import com.secureauth.config.JwtService;
+import com.secureauth.dto.AuthenticationResponse;
+import com.secureauth.dto.RefreshTokenRequest;
+import com.secureauth.entities.AuditLog;
+import com.secureauth.entities.RefreshToken;
+import com.secureauth.entities.User;
+import com.secureauth.exceptions.AuthenticationException;
+import com.secureauth.repositories.RefreshTokenRepository;
+import com.secureauth.utils.TokenHasher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationServiceRefreshTokenTest {
+
+    private static final String PRESENTED_TOKEN = "presented-refresh-token";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private JwtService jwtService;
+    @Mock
+    private AuditService auditService;
+
+    @InjectMocks
+    private AuthenticationService authenticationService;
+
+    private final UUID familyId = UUID.randomUUID();
+    private User user;
+    private RefreshToken presented;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(authenticationService, "reuseGraceMillis", 10_000L);
+
+        user = User.builder().id(1L).username("alice").tokenVersion(2).build();
+        presented = RefreshToken.builder()
+                .id(10L)
+                .familyId(familyId)
+                .user(user)
+                .tokenVersion(2)
+                .expiryDate(LocalDateTime.now().plusDays(1))
+                .build();
+        when(refreshTokenRepository.findByTokenHashWithUser(any())).thenReturn(Optional.of(presented));
+    }
+
+    @Test
+    void firstUseRotatesTokenAndIssuesSuccessorInSameFamily() {
+        when(refreshTokenRepository.markRotated(eq(10L), any())).thenReturn(1);
+        when(jwtService.generateToken(user)).thenReturn("access-token");
+
+        AuthenticationResponse response = authenticationService.refreshToken(request());
+
+        ArgumentCaptor<RefreshToken> successor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(successor.capture());
+        assertThat(successor.getValue().getFamilyId()).isEqualTo(familyId);
+        assertThat(successor.getValue().getExpiryDate()).isEqualTo(presented.getExpiryDate());
+        assertThat(successor.getValue().getTokenVersion()).isEqualTo(2);
+        assertThat(response.getAccessToken()).isEqualTo("access-token");
+        assertThat(response.getRefreshToken()).isNotBlank().isNotEqualTo(PRESENTED_TOKEN);
+    }
+
+    @Test
+    void tokenPresentedAgainWithinGraceWindowGetsNewTokenWithoutRevocation() {
+        when(refreshTokenRepository.markRotated(eq(10L), any())).thenReturn(0);
+        when(refreshTokenRepository.findRotatedAt(10L)).thenReturn(Optional.of(LocalDateTime.now().minusSeconds(2)));
+        when(jwtService.generateToken(user)).thenReturn("access-token");
+
+        AuthenticationResponse response = authenticationService.refreshToken(request());
+
+        assertThat(response.getRefreshToken()).isNotBlank();
+        verify(refreshTokenRepository).supersedeActive(eq(familyId), any());
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+        verifyNoInteractions(auditService);
+    }
+
+    @Test
+    void replayWithinGraceWindowLeavesSingleLiveTokenInFamily() {
+        // Famille simulée en mémoire : un seul token actif (ni renouvelé ni révoqué) doit subsister
+        List<RefreshToken> family = new ArrayList<>(List.of(presented));
+        when(refreshTokenRepository.save(any())).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            family.add(token);
+            return token;
+        });
+        when(refreshTokenRepository.markRotated(eq(10L), any())).thenAnswer(invocation -> {
+            if (presented.getRotated() || presented.getRevoked()) {
+                return 0;
+            }
+            presented.setRotated(true);
+            presented.setRotatedAt(invocation.getArgument(1));
+            return 1;
+        });
+        when(refreshTokenRepository.findRotatedAt(10L)).thenAnswer(invocation -> Optional.ofNullable(presented.getRotatedAt()));
+        when(refreshTokenRepository.supersedeActive(eq(familyId), any())).thenAnswer(invocation -> {
+            List<RefreshToken> live = live(family);
+            live.forEach(token -> {
+                token.setRotated(true);
+                token.setRotatedAt(invocation.getArgument(1));
+            });
+            return live.size();
+        });
+        when(jwtService.generateToken(user)).thenReturn("access-token");
+
+        AuthenticationResponse first = authenticationService.refreshToken(request());
+        AuthenticationResponse replay = authenticationService.refreshToken(request());
+
+        assertThat(family).hasSize(3);
+        assertThat(live(family)).singleElement()
+                .satisfies(token -> assertThat(token.getTokenHash())
+                        .isEqualTo(TokenHasher.sha256(replay.getRefreshToken()))
+                        .isNotEqualTo(TokenHasher.sha256(first.getRefreshToken())));
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    void reuseAfterGraceWindowRevokesFamilyAndIsAudited() {
+        when(refreshTokenRepository.markRotated(eq(10L), any())).thenReturn(0);
+        when(refreshTokenRepository.findRotatedAt(10L)).thenReturn(Optional.of(LocalDateTime.now().minusMinutes(1)));
+
+        assertThatThrownBy(() -> authenticationService.refreshToken(request()))
+                .isInstanceOf(AuthenticationException.class);
+
+        verify(refreshTokenRepository).revokeFamily(eq(familyId), any());
+        verify(auditService).logFailure(eq("alice"), eq(AuditLog.Action.REFRESH_TOKEN_REUSED), anyString());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void tokenRevokedByLogoutIsRejectedWithoutReuseAudit() {
+        presented.setRevoked(true);
+
+        assertThatThrownBy(() -> authenticationService.refreshToken(request()))
+                .isInstanceOf(AuthenticationException.class);
+
+        verify(refreshTokenRepository, never()).markRotated(anyLong(), any());
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+        verifyNoInteractions(auditService);
+    }
+
+    @Test
+    void tokenRevokedDuringConcurrentRefreshIsRejected() {
+        when(refreshTokenRepository.markRotated(eq(10L), any())).thenReturn(0);
+        when(refreshTokenRepository.findRotatedAt(10L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> authenticationService.refreshToken(request()))
+                .isInstanceOf(AuthenticationException.class);
+
+        verifyNoInteractions(auditService);
+    }
+
+    @Test
+    void tokenIssuedBeforeVersionBumpIsRejectedAndFamilyRevoked() {
+        presented.setTokenVersion(1);
+        when(refreshTokenRepository.markRotated(eq(10L), any())).thenReturn(1);
+
+        assertThatThrownBy(() -> authenticationService.refreshToken(request()))
+                .isInstanceOf(AuthenticationException.class);
+
+        verify(refreshTokenRepository).revokeFamily(eq(familyId), any());
+        verify(refreshTokenRepository, never()).save(any());
+        verifyNoInteractions(auditService);
+    }
+
+    @Test
+    void expiredTokenIsDeleted() {
+        presented.setExpiryDate(LocalDateTime.now().minusMinutes(1));
+
+        assertThatThrownBy(() -> authenticationService.refreshToken(request()))
+                .isInstanceOf(AuthenticationException.class);
+
+        verify(refreshTokenRepository).delete(presented);
+    }
+
+    private static List<RefreshToken> live(List<RefreshToken> family) {
+        return family.stream().filter(token -> !token.getRotated() && !token.getRevoked()).toList();
+    }
+
+    private RefreshTokenRequest request() {
+        return RefreshTokenRequest.builder().refreshToken(PRESENTED_TOKEN).build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.secureauth.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class SessionActivityTrackerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<Integer> flushedChunks = new ArrayList<>();
+
+    private SessionActivityTracker newTracker(int flushBatchSize, int maxPending) {
+        doAnswer(invocation -> {
+            Collection<?> chunk = invocation.getArgument(1);
+            flushedChunks.add(chunk.size());
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        return new SessionActivityTracker(jdbcTemplate, flushBatchSize, maxPending);
+    }
+
+    @Test
+    void activityOfSameSessionIsCoalescedIntoOneWrite() {
+        SessionActivityTracker tracker = newTracker(500, 100);
+
+        tracker.recordActivity("token-a");
+        tracker.recordActivity("token-a");
+        tracker.recordActivity("token-a");
+        tracker.flush();
+
+        assertThat(flushedChunks).containsExactly(1);
+        assertThat(tracker.getStats().getPendingActivity()).isZero();
+        assertThat(tracker.getStats().getFlushedActivity()).isEqualTo(1);
+    }
+
+    @Test
+    void flushIsSplitIntoBatches() {
+        SessionActivityTracker tracker = newTracker(2, 100);
+        for (int i = 0; i < 5; i++) {
+            tracker.recordActivity("token-" + i);
+        }
+
+        tracker.flush();
+
+        assertThat(flushedChunks).containsExactly(2, 2, 1);
+    }
+
+    @Test
+    void pendingEntriesAreBounded() {
+        SessionActivityTracker tracker = newTracker(500, 2);
+
+        tracker.recordActivity("token-a");
+        tracker.recordActivity("token-b");
+        tracker.recordActivity("token-c");
+        tracker.recordActivity("token-a"); // déjà en attente : accepté
+
+        assertThat(tracker.getStats().getPendingActivity()).isEqualTo(2);
+        assertThat(tracker.getStats().getDroppedActivity()).isEqualTo(1);
+    }
+
+    @Test
+    void failedFlushKeepsActivityPending() {
+        SessionActivityTracker tracker = new SessionActivityTracker(jdbcTemplate, 500, 100);
+        doThrow(new DataAccessResourceFailureException("Connection refused"))
+                .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        tracker.recordActivity("token-a");
+        tracker.recordActivity("token-b");
+
+        tracker.flush();
+
+        assertThat(tracker.getStats().getPendingActivity()).isEqualTo(2);
+        assertThat(tracker.getStats().getFlushedActivity()).isZero();
+    }
+
+    @Test
+    void emptyFlushDoesNotTouchDatabase() {
+        SessionActivityTracker tracker = newTracker(500, 100);
+
+        tracker.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+}
@@ -0,0 +1,61 @@
+package com.secureauth.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditLogCursorTest {
+
+    @Test
+    void encodeDecodeRoundTripKeepsMicroseconds() {
+        AuditLogCursor cursor = new AuditLogCursor(LocalDateTime.of(2026, 3, 14, 15, 9, 26, 535_897_000), 123_456L);
+
+        AuditLogCursor decoded = AuditLogCursor.decode(cursor.encode());
+
+        assertThat(decoded.getTimestamp()).isEqualTo(cursor.getTimestamp());
+        assertThat(decoded.getId()).isEqualTo(123_456L);
+    }
+
+    @Test
+    void roundTripBeforeEpoch() {
+        AuditLogCursor cursor = new AuditLogCursor(LocalDateTime.of(1969, 7, 20, 20, 17, 40), 1L);
+
+        assertThat(AuditLogCursor.decode(cursor.encode()).getTimestamp()).isEqualTo(cursor.getTimestamp());
+    }
+
+    @Test
+    void startCursorRoundTrips() {
+        AuditLogCursor decoded = AuditLogCursor.decode(AuditLogCursor.START.encode());
+
+        assertThat(decoded.getTimestamp()).isEqualTo(AuditLogCursor.START.getTimestamp());
+        assertThat(decoded.getId()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void emptyTokenIsFirstPage() {
+        assertThat(AuditLogCursor.decode(null)).isSameAs(AuditLogCursor.START);
+        assertThat(AuditLogCursor.decode("")).isSameAs(AuditLogCursor.START);
+    }
+
+    @Test
+    void invalidTokensAreRejectedAsIllegalArgument() {
+        assertThatThrownBy(() -> AuditLogCursor.decode("not base64 !"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AuditLogCursor.decode(Base64.getUrlEncoder().encodeToString(new byte[8])))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void outOfRangeTimestampIsRejectedAsIllegalArgument() {
+        ByteBuffer forged = ByteBuffer.allocate(16).putLong(Long.MAX_VALUE).putLong(1L);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(forged.array());
+
+        assertThatThrownBy(() -> AuditLogCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
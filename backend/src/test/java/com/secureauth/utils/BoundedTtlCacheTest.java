@@ -0,0 +1,91 @@
+package com.secureauth.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void getLoadsOnceThenServesFromCache() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("alice", key -> "user:" + key + ":" + loads.incrementAndGet())).isEqualTo("user:alice:1");
+        assertThat(cache.get("alice", key -> "user:" + key + ":" + loads.incrementAndGet())).isEqualTo("user:alice:1");
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void nullIsNotCached() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 60_000);
+
+        assertThat(cache.get("ghost", key -> null)).isNull();
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void expiredEntryIsReloaded() throws InterruptedException {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 20);
+        cache.put("alice", "v1");
+
+        Thread.sleep(50);
+
+        assertThat(cache.getIfPresent("alice")).isNull();
+        assertThat(cache.get("alice", key -> "v2")).isEqualTo("v2");
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void sizeStaysBounded() {
+        BoundedTtlCache<Integer, Integer> cache = new BoundedTtlCache<>(100, 60_000);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.getEvictions()).isGreaterThanOrEqualTo(900);
+    }
+
+    @Test
+    void zeroMaxSizeDisablesCaching() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(0, 60_000);
+
+        cache.put("alice", "v1");
+
+        assertThat(cache.getIfPresent("alice")).isNull();
+    }
+
+    @Test
+    void invalidateIfRemovesMatchingValues() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 60_000);
+        cache.put("alice", "admin");
+        cache.put("bob", "user");
+
+        cache.invalidateIf("admin"::equals);
+
+        assertThat(cache.getIfPresent("alice")).isNull();
+        assertThat(cache.getIfPresent("bob")).isEqualTo("user");
+    }
+
+    @Test
+    void loadRacingWithInvalidationIsNotCached() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 60_000);
+
+        // Invalidation pendant le chargement : la valeur chargée (périmée) est retournée mais pas mise en cache
+        String loaded = cache.get("alice", key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        assertThat(loaded).isEqualTo("stale");
+        assertThat(cache.getIfPresent("alice")).isNull();
+    }
+}
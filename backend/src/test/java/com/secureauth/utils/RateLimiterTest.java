@@ -0,0 +1,99 @@
+package com.secureauth.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    @Test
+    void allowsBurstUpToLimitThenRejects() {
+        RateLimiter limiter = new RateLimiter(3, 60_000, 100);
+
+        assertThat(limiter.tryAcquire("ip")).isZero();
+        assertThat(limiter.tryAcquire("ip")).isZero();
+        assertThat(limiter.tryAcquire("ip")).isZero();
+
+        // GCRA : une tentative redevient possible après un intervalle d'émission (60 s / 3)
+        assertThat(limiter.tryAcquire("ip")).isBetween(19_000L, 20_000L);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void keysAreIndependent() {
+        RateLimiter limiter = new RateLimiter(1, 60_000, 100);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void capacityIsRestoredOverTime() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1, 50, 100);
+
+        assertThat(limiter.tryAcquire("ip")).isZero();
+        assertThat(limiter.tryAcquire("ip")).isPositive();
+
+        Thread.sleep(80);
+
+        assertThat(limiter.tryAcquire("ip")).isZero();
+    }
+
+    @Test
+    void resetRestoresFullCapacity() {
+        RateLimiter limiter = new RateLimiter(1, 60_000, 100);
+        limiter.tryAcquire("ip|alice");
+
+        limiter.reset("ip|alice");
+
+        assertThat(limiter.tryAcquire("ip|alice")).isZero();
+    }
+
+    @Test
+    void fullTableEvictsLeastRecentlyUsedKeyInsteadOfSharingABucket() {
+        RateLimiter limiter = new RateLimiter(1, 60_000, 2);
+        limiter.tryAcquire("old");
+        limiter.tryAcquire("recent");
+
+        // Table pleine, aucune clé inactive : la clé la moins récente est évincée, chaque client garde son seau
+        assertThat(limiter.tryAcquire("c")).isZero();
+        assertThat(limiter.tryAcquire("d")).isZero();
+
+        assertThat(limiter.size()).isLessThanOrEqualTo(2);
+        assertThat(limiter.getEvictedLeastRecent()).isEqualTo(2);
+    }
+
+    @Test
+    void activeKeyKeepsItsLimitWhileTableIsFlooded() {
+        RateLimiter limiter = new RateLimiter(1, 60_000, 10);
+        limiter.tryAcquire("target");
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("rotating-" + i);
+            // L'attaquant insiste sur la cible : sa clé reste la plus récente
+            assertThat(limiter.tryAcquire("target")).isPositive();
+        }
+        assertThat(limiter.size()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void evictIdleRemovesRefilledBuckets() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1, 20, 100);
+        limiter.tryAcquire("a");
+
+        Thread.sleep(50);
+
+        assertThat(limiter.evictIdle()).isEqualTo(1);
+        assertThat(limiter.size()).isZero();
+    }
+
+    @Test
+    void rejectionIsReportedOncePerPeriod() {
+        RateLimiter limiter = new RateLimiter(1, 60_000, 100);
+        limiter.tryAcquire("ip");
+
+        assertThat(limiter.shouldReport("ip")).isTrue();
+        assertThat(limiter.shouldReport("ip")).isFalse();
+    }
+}
@@ -0,0 +1,111 @@
+-- ============================================
+-- SecureAuth+ - Migration: Index de recherche sur audit_logs
+-- Description: Jeu d'index définitif de audit_logs :
+--              - export d'audit (filtres "contient" en LIKE '%...%') ;
+--              - recherche multi-critères (findByFilters) ;
+--              - pagination par curseur (GET /api/v1/audit/cursor), ordre
+--                (timestamp, id) sans OFFSET ni COUNT ;
+--              - lecture incrémentale des échecs de connexion (SecurityAlertEngine).
+--              Les index sont créés en CONCURRENTLY : ne pas exécuter
+--              ce script dans une transaction (psql par défaut : OK).
+-- ============================================
+
+\c secureauth;
+
+-- ============================================
+-- 1. Extension trigrammes
+-- ============================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- ============================================
+-- 2. Index B-tree
+-- ============================================
+
+-- Export : parcours par plage de dates, trié par timestamp ; action, username
+-- et ip_address sont dans l'index pour filtrer sans visiter la table
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audit_logs_ts_action_user_ip
+    ON audit_logs (timestamp, action, username, ip_address);
+
+-- Pagination par curseur sans filtre : Index Scan Backward, arrêt après LIMIT
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audit_logs_ts_id
+    ON audit_logs (timestamp, id);
+
+-- findByFilters et pagination filtrée : égalité sur username ou action, puis plage
+-- de dates et tri ; id départage les égalités de timestamp (curseur, lecture incrémentale)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audit_logs_username_ts_id
+    ON audit_logs (username, timestamp, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audit_logs_action_ts_id
+    ON audit_logs (action, timestamp, id);
+
+-- ============================================
+-- 3. Index trigrammes (recherche par sous-chaîne)
+-- ============================================
+
+-- Utilisés par LIKE '%motif%' dès 3 caractères ; en dessous, le planificateur
+-- revient au parcours de idx_audit_logs_ts_action_user_ip sur la plage de dates
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audit_logs_action_trgm
+    ON audit_logs USING gin (action gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audit_logs_username_trgm
+    ON audit_logs USING gin (username gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audit_logs_ip_address_trgm
+    ON audit_logs USING gin (ip_address gin_trgm_ops);
+
+ANALYZE audit_logs;
+
+-- ============================================
+-- 4. Vérification des plans (EXPLAIN)
+-- ============================================
+
+-- Export sans filtre texte : Index Scan sur idx_audit_logs_ts_action_user_ip
+-- (Index Cond sur timestamp, pas de nœud Sort pour ORDER BY timestamp ;
+-- Incremental Sort sur id pour départager les égalités)
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT * FROM audit_logs
+-- WHERE timestamp BETWEEN now() - interval '30 days' AND now()
+-- ORDER BY timestamp, id;
+
+-- Export filtré par sous-chaîne sélective : BitmapAnd entre
+-- idx_audit_logs_username_trgm et idx_audit_logs_ts_action_user_ip (ou Bitmap Index
+-- Scan trigramme seul si la plage de dates est large), puis Sort
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT * FROM audit_logs
+-- WHERE timestamp BETWEEN now() - interval '30 days' AND now()
+--   AND username LIKE '%admin%' ESCAPE '\'
+-- ORDER BY timestamp, id;
+
+-- findByFilters (username renseigné) : Index Scan sur idx_audit_logs_username_ts_id.
+-- Les prédicats ":param IS NULL OR ..." sont simplifiés par les plans personnalisés
+-- de PostgreSQL (paramètres connus à l'exécution) ; si un plan générique est
+-- retenu, vérifier plan_cache_mode = force_custom_plan pour cette application.
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT * FROM audit_logs
+-- WHERE username = 'admin'
+--   AND timestamp >= now() - interval '7 days'
+-- ORDER BY timestamp DESC
+-- LIMIT 20;
+
+-- Pagination par curseur : Limit -> Index Scan Backward using idx_audit_logs_ts_id
+-- (Index Cond: timestamp <= ...), sans nœud Sort
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT * FROM audit_logs
+-- WHERE timestamp <= '2026-01-01 00:00' AND (timestamp < '2026-01-01 00:00' OR id < 123456)
+-- ORDER BY timestamp DESC, id DESC
+-- LIMIT 21;
+
+-- Lecture incrémentale des échecs : Index Scan using idx_audit_logs_action_ts_id
+-- (Index Cond: action = ... AND ROW(timestamp, id) > ROW(...))
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT id, username, ip_address, timestamp FROM audit_logs
+-- WHERE action = 'LOGIN_FAILED' AND (timestamp, id) > ('2026-01-01 00:00', 0)
+-- ORDER BY timestamp, id
+-- LIMIT 1000;
+
+-- ============================================
+-- Fin de la migration
+-- ============================================
@@ -0,0 +1,105 @@
+-- ============================================
+-- SecureAuth+ - Migration: Partitionnement de audit_logs
+-- Description: audit_logs devient une table partitionnée par mois sur
+--              timestamp (partitionnement natif PostgreSQL).
+--              - les requêtes filtrées par date n'accèdent qu'aux partitions utiles
+--              - la rétention supprime des partitions entières (plus de DELETE massif)
+--              Les partitions futures et la rétention sont gérées par
+--              AuditPartitionManager (security.audit.partitions.*).
+--              À exécuter application arrêtée (copie complète de la table).
+--              Prérequis : migration_audit_sequence.sql
+-- ============================================
+
+\c secureauth;
+
+BEGIN;
+
+-- ============================================
+-- 1. Nouvelle table partitionnée
+-- ============================================
+
+ALTER TABLE audit_logs RENAME TO audit_logs_legacy;
+
+-- La clé de partitionnement doit faire partie de la clé primaire ;
+-- l'unicité de id reste garantie par audit_logs_seq
+CREATE TABLE audit_logs (
+    id BIGINT NOT NULL DEFAULT nextval('audit_logs_seq'),
+    username VARCHAR(50) NOT NULL,
+    action VARCHAR(100) NOT NULL,
+    details TEXT,
+    ip_address VARCHAR(50),
+    user_agent VARCHAR(255),
+    success BOOLEAN NOT NULL DEFAULT true,
+    error_message TEXT,
+    timestamp TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- ============================================
+-- 2. Partitions mensuelles (historique + 3 mois à venir)
+-- ============================================
+
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE := date_trunc('month', now() + interval '3 months')::date;
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(timestamp))::date, date_trunc('month', now())::date)
+    INTO month_start
+    FROM audit_logs_legacy;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+            'audit_logs_p' || to_char(month_start, 'YYYYMM'),
+            month_start,
+            (month_start + interval '1 month')::date);
+        month_start := (month_start + interval '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Filet de sécurité si le gestionnaire n'a pas créé la partition à temps
+CREATE TABLE IF NOT EXISTS audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+-- ============================================
+-- 3. Copie des données
+-- ============================================
+
+INSERT INTO audit_logs (id, username, action, details, ip_address, user_agent, success, error_message, timestamp)
+SELECT id, username, action, details, ip_address, user_agent, success, error_message, timestamp
+FROM audit_logs_legacy;
+
+DROP TABLE audit_logs_legacy;
+
+-- ============================================
+-- 4. Index (créés sur la table parente, propagés à chaque partition)
+-- ============================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_ts_action_user_ip
+    ON audit_logs (timestamp, action, username, ip_address);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_ts_id
+    ON audit_logs (timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_username_ts_id
+    ON audit_logs (username, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_action_ts_id
+    ON audit_logs (action, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_action_trgm
+    ON audit_logs USING gin (action gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_username_trgm
+    ON audit_logs USING gin (username gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_ip_address_trgm
+    ON audit_logs USING gin (ip_address gin_trgm_ops);
+
+COMMIT;
+
+ANALYZE audit_logs;
+
+-- Vérification de l'élagage (une seule partition attendue dans le plan) :
+-- EXPLAIN SELECT * FROM audit_logs
+-- WHERE action = 'LOGIN_FAILED' AND timestamp > now() - interval '7 days';
+
+-- ============================================
+-- Fin de la migration
+-- ============================================
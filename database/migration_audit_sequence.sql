@@ -0,0 +1,28 @@
+-- ============================================
+-- SecureAuth+ - Migration: Séquence pour audit_logs
+-- Description: Les ids de audit_logs proviennent désormais d'une séquence
+--              (allocationSize = 50 côté Hibernate) afin de permettre
+--              les inserts JDBC en batch du pipeline d'audit asynchrone.
+--              Optimiseur Hibernate : pooled (défaut pour allocationSize > 1).
+--              Une valeur v renvoyée par nextval est le HAUT du bloc d'ids
+--              utilisé par l'application : (v - 50, v]. La séquence doit
+--              donc démarrer à MAX(id) + 50 pour que le premier bloc ne
+--              recouvre aucun id existant (avec la clé primaire (id, timestamp)
+--              de la table partitionnée, un doublon ne serait pas rejeté).
+--              À exécuter avant le démarrage de la nouvelle version.
+-- ============================================
+
+\c secureauth;
+
+-- INCREMENT BY doit correspondre à allocationSize (optimiseur pooled)
+CREATE SEQUENCE IF NOT EXISTS audit_logs_seq INCREMENT BY 50;
+
+-- Premier bloc (pooled) : MAX(id) + 1 .. MAX(id) + 50, après les ids de l'ancienne colonne IDENTITY
+SELECT setval('audit_logs_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM audit_logs), false);
+
+-- Recommandé : ajouter reWriteBatchedInserts=true à l'URL JDBC pour des INSERT multi-lignes
+-- spring.datasource.url: jdbc:postgresql://localhost:5432/secureauth?reWriteBatchedInserts=true
+
+-- ============================================
+-- Fin de la migration
+-- ============================================
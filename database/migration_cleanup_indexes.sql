@@ -0,0 +1,33 @@
+-- ============================================
+-- SecureAuth+ - Migration: Index des tâches de nettoyage
+-- Description: Index partiels utilisés par les tâches de nettoyage par lots
+--              (CleanupJobExecutor) : chaque lot sélectionne au plus
+--              security.cleanup.batch-size lignes (LIMIT ... FOR UPDATE SKIP LOCKED)
+--              par un parcours d'index, sans balayer la table.
+--              SKIP LOCKED : plusieurs instances peuvent exécuter la même tâche
+--              simultanément, chacune traitant des lignes disjointes.
+-- ============================================
+
+\c secureauth;
+
+-- Sessions actives expirées (idx_user_sessions_active_expires : migration_session_token_hash.sql)
+CREATE INDEX IF NOT EXISTS idx_user_sessions_inactive_expires
+    ON user_sessions (expires_at) WHERE active = false;
+
+-- Clés API actives expirées
+CREATE INDEX IF NOT EXISTS idx_api_keys_active_expires
+    ON api_keys (expires_at) WHERE active = true AND expires_at IS NOT NULL;
+
+-- Refresh tokens expirés
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expiry_date ON refresh_tokens (expiry_date);
+
+-- Révocation de tous les tokens d'un utilisateur à la déconnexion
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_id ON refresh_tokens (user_id);
+
+-- Vérification (Index Scan / Bitmap Index Scan attendu dans le sous-plan LockRows) :
+-- EXPLAIN DELETE FROM refresh_tokens WHERE id IN (
+--     SELECT id FROM refresh_tokens WHERE expiry_date < now() LIMIT 1000 FOR UPDATE SKIP LOCKED);
+
+-- ============================================
+-- Fin de la migration
+-- ============================================
@@ -0,0 +1,35 @@
+-- ============================================
+-- SecureAuth+ - Migration: Baux des tâches planifiées
+-- Description: Table utilisée par JobLeaseManager pour qu'une tâche de
+--              maintenance (@Scheduled) ne s'exécute que sur une instance
+--              du cluster : nettoyage des sessions, des clés API, purge des
+--              refresh tokens, maintenance des partitions d'audit.
+--              Le bail est pris par un upsert conditionnel (lease_until
+--              dépassé) avec l'horloge du serveur PostgreSQL comme référence.
+--              L'application crée aussi la table au démarrage si nécessaire
+--              (security.scheduling.leases.enabled=false pour désactiver).
+-- ============================================
+
+\c secureauth;
+
+CREATE TABLE IF NOT EXISTS scheduled_job_leases (
+    job_name VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(255) NOT NULL,
+    acquired_at TIMESTAMPTZ NOT NULL,
+    lease_until TIMESTAMPTZ NOT NULL,
+    last_completed_at TIMESTAMPTZ,
+    last_duration_ms BIGINT,
+    run_count BIGINT NOT NULL DEFAULT 0
+);
+
+-- Test local à plusieurs instances : démarrer deux ou trois backends sur des
+-- ports différents (server.port) avec la même base, éventuellement avec
+-- security.scheduling.instance-id=node-1, node-2..., puis vérifier qu'une
+-- seule instance exécute chaque tâche (run_count, owner) :
+-- SELECT * FROM scheduled_job_leases ORDER BY job_name;
+-- ou GET /api/v1/admin/metrics/job-leases sur n'importe quelle instance.
+-- Forcer une nouvelle exécution : UPDATE scheduled_job_leases SET lease_until = now();
+
+-- ============================================
+-- Fin de la migration
+-- ============================================
@@ -0,0 +1,31 @@
+-- ============================================
+-- SecureAuth+ - Migration: Compteurs de limitation des connexions partagés
+-- Description: Table UNLOGGED utilisée par ClusterThrottleStore lorsque
+--              security.login-throttle.cluster.enabled=true. Les instances
+--              y fusionnent leurs tentatives par upsert (une synchronisation
+--              par seconde par défaut), sans requête sur le chemin du login.
+--              UNLOGGED : pas de WAL, contenu perdu après un crash du serveur
+--              (acceptable pour des compteurs de courte durée).
+--              L'application crée aussi la table au démarrage si nécessaire.
+--              throttle_key contient l'empreinte SHA-256 (base64url, 43
+--              caractères) de "portée|clé" : les IP et usernames fournis par
+--              le client ne sont jamais stockés tels quels et tiennent
+--              toujours dans la colonne.
+-- ============================================
+
+\c secureauth;
+
+CREATE UNLOGGED TABLE IF NOT EXISTS login_throttle_counters (
+    throttle_key VARCHAR(400) NOT NULL,
+    window_start BIGINT NOT NULL,
+    attempts INTEGER NOT NULL,
+    PRIMARY KEY (throttle_key, window_start)
+);
+
+-- Test local à plusieurs instances : démarrer deux backends sur des ports
+-- différents (server.port) avec la même base, puis répartir les tentatives :
+-- SELECT * FROM login_throttle_counters ORDER BY window_start DESC, attempts DESC;
+
+-- ============================================
+-- Fin de la migration
+-- ============================================
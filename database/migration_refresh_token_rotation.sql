@@ -0,0 +1,76 @@
+-- ============================================
+-- SecureAuth+ - Migration: Refresh tokens opaques et rotation
+-- Description: Remplace refresh_tokens.token (JWT signé jusqu'à 500
+--              caractères, index unique VARCHAR) par token_hash : SHA-256 du
+--              token sur 32 octets (BYTEA), indexé de façon unique, et ajoute
+--              family_id. Chaque appel à /api/v1/auth/refresh remplace le
+--              token par un nouveau de la même famille et le marque rotated.
+--              Représenté dans la fenêtre de grâce
+--              (security.refresh-token.reuse-grace), il reçoit un nouveau
+--              successeur et le précédent est marqué rotated : une famille
+--              n'a jamais qu'un token actif. Un token déjà renouvelé
+--              représenté après la fenêtre de grâce révoque toute la famille ;
+--              revoked reste réservé à la révocation explicite (déconnexion,
+--              famille révoquée), refusée sans être traitée comme une réutilisation.
+--              Les tokens existants restent utilisables une fois : leur
+--              empreinte est calculée à partir du JWT actuel, et chacun
+--              devient le premier token d'une nouvelle famille.
+--              À exécuter avant de démarrer la nouvelle version.
+-- ============================================
+
+\c secureauth;
+
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS token_hash BYTEA;
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS family_id UUID;
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS rotated BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS rotated_at TIMESTAMP;
+
+-- Empreinte des tokens existants (même calcul que TokenHasher : SHA-256 de l'UTF-8 du token)
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'refresh_tokens' AND column_name = 'token') THEN
+        UPDATE refresh_tokens
+        SET token_hash = digest(token, 'sha256')
+        WHERE token_hash IS NULL;
+    END IF;
+END $$;
+
+UPDATE refresh_tokens SET family_id = gen_random_uuid() WHERE family_id IS NULL;
+
+-- Lignes sans token exploitable : supprimées (token inutilisable)
+DELETE FROM refresh_tokens WHERE token_hash IS NULL;
+
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE refresh_tokens ALTER COLUMN family_id SET NOT NULL;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ck_refresh_tokens_token_hash_length') THEN
+        ALTER TABLE refresh_tokens ADD CONSTRAINT ck_refresh_tokens_token_hash_length
+            CHECK (octet_length(token_hash) = 32);
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_refresh_tokens_token_hash ON refresh_tokens (token_hash);
+
+-- Révocation d'une famille (seuls les tokens encore actifs sont concernés)
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_active
+    ON refresh_tokens (family_id) WHERE revoked = false;
+
+-- L'ancien token JWT et son index unique disparaissent avec la colonne
+ALTER TABLE refresh_tokens DROP COLUMN IF EXISTS token;
+
+ANALYZE refresh_tokens;
+
+-- Taille de l'index unique (32 octets de clé par ligne contre ~300 à 500 pour le JWT) :
+-- SELECT pg_size_pretty(pg_relation_size('ux_refresh_tokens_token_hash'));
+-- Croissance bornée : une famille garde au plus une ligne par renouvellement,
+-- toutes avec l'échéance de la connexion d'origine, purgées ensemble par
+-- AuthenticationService.purgeExpiredRefreshTokens.
+
+-- ============================================
+-- Fin de la migration
+-- ============================================
@@ -0,0 +1,26 @@
+-- ============================================
+-- SecureAuth+ - Migration: Version des droits sur les refresh tokens
+-- Description: Ajoute refresh_tokens.token_version, copie de
+--              users.token_version à l'émission du token. Le renouvellement
+--              est refusé (et la famille révoquée) si l'utilisateur a changé
+--              de version depuis : verrouillage, désactivation ou changement
+--              de rôles imposent une reconnexion.
+--              Les tokens existants reçoivent la version actuelle de leur
+--              utilisateur et restent donc utilisables.
+--              À exécuter après migration_refresh_token_rotation.sql.
+-- ============================================
+
+\c secureauth;
+
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS token_version INTEGER;
+
+UPDATE refresh_tokens r
+SET token_version = u.token_version
+FROM users u
+WHERE u.id = r.user_id AND r.token_version IS NULL;
+
+ALTER TABLE refresh_tokens ALTER COLUMN token_version SET NOT NULL;
+
+-- ============================================
+-- Fin de la migration
+-- ============================================
@@ -0,0 +1,25 @@
+-- ============================================
+-- SecureAuth+ - Migration: Comptes verrouillés pour le moteur d'alertes
+-- Description: Index partiel sur les comptes verrouillés. SecurityAlertEngine
+--              relit (username, lock_time, failed_login_attempts) de ces seuls
+--              comptes lors d'une consultation des alertes, au plus une fois
+--              par security.alerts.locked-refresh-interval : parcours de
+--              l'index partiel, quelques lignes quel que soit le nombre
+--              d'utilisateurs.
+-- ============================================
+
+\c secureauth;
+
+CREATE INDEX IF NOT EXISTS idx_users_locked
+    ON users (username) INCLUDE (lock_time, failed_login_attempts)
+    WHERE account_non_locked = false;
+
+ANALYZE users;
+
+-- Vérification (Index Only Scan using idx_users_locked attendu) :
+-- EXPLAIN SELECT username, lock_time, failed_login_attempts FROM users
+-- WHERE account_non_locked = false AND lock_time IS NOT NULL;
+
+-- ============================================
+-- Fin de la migration
+-- ============================================
@@ -0,0 +1,71 @@
+-- ============================================
+-- SecureAuth+ - Migration: Empreinte des tokens de session
+-- Description: Remplace user_sessions.session_token (UUID en clair, sans
+--              contrainte d'unicité) par session_token_hash : SHA-256 du
+--              token sur 32 octets (BYTEA), indexé de façon unique.
+--              Les recherches par token passent par l'empreinte
+--              (Index Scan sur l'index unique, O(log n)) ; le token en clair
+--              n'est plus stocké. Les sessions existantes restent valides :
+--              leur empreinte est calculée à partir du token actuel.
+--              Supprime aussi la colonne session_id (et ses index) créée par
+--              migration_add_iam_features.sql, jamais utilisée par l'application.
+--              À exécuter avant de démarrer la nouvelle version.
+-- ============================================
+
+\c secureauth;
+
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+
+ALTER TABLE user_sessions ADD COLUMN IF NOT EXISTS session_token_hash BYTEA;
+
+-- Empreinte des sessions existantes (même calcul que TokenHasher : SHA-256 de l'UTF-8 du token)
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'user_sessions' AND column_name = 'session_token') THEN
+        UPDATE user_sessions
+        SET session_token_hash = digest(session_token, 'sha256')
+        WHERE session_token_hash IS NULL;
+    END IF;
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'user_sessions' AND column_name = 'session_id') THEN
+        UPDATE user_sessions
+        SET session_token_hash = digest(session_id, 'sha256')
+        WHERE session_token_hash IS NULL;
+    END IF;
+END $$;
+
+-- Lignes sans token exploitable : supprimées (session inutilisable)
+DELETE FROM user_sessions WHERE session_token_hash IS NULL;
+
+ALTER TABLE user_sessions ALTER COLUMN session_token_hash SET NOT NULL;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ck_user_sessions_token_hash_length') THEN
+        ALTER TABLE user_sessions ADD CONSTRAINT ck_user_sessions_token_hash_length
+            CHECK (octet_length(session_token_hash) = 32);
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_user_sessions_token_hash ON user_sessions (session_token_hash);
+
+ALTER TABLE user_sessions DROP COLUMN IF EXISTS session_token;
+ALTER TABLE user_sessions DROP COLUMN IF EXISTS session_id;
+
+-- Expiration des sessions actives par le nettoyage planifié (sessions actives uniquement)
+CREATE INDEX IF NOT EXISTS idx_user_sessions_active_expires
+    ON user_sessions (expires_at) WHERE active = true;
+
+ANALYZE user_sessions;
+
+-- Vérification : la recherche par empreinte doit utiliser l'index unique
+-- (Index Scan using ux_user_sessions_token_hash, quelques pages lues quel que
+-- soit le volume ; l'index occupe ~32 octets de clé par ligne contre 36+ pour
+-- l'UUID texte) :
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT id FROM user_sessions WHERE session_token_hash = digest('<token>', 'sha256');
+
+-- ============================================
+-- Fin de la migration
+-- ============================================
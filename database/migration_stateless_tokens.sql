@@ -0,0 +1,14 @@
+-- ============================================
+-- SecureAuth+ - Migration: Tokens JWT stateless
+-- Description: Ajoute la version des tokens utilisée pour invalider
+--              les rôles/permissions embarqués dans les access tokens
+--              (jwt.stateless-principal=true)
+-- ============================================
+
+\c secureauth;
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
+
+-- ============================================
+-- Fin de la migration
+-- ============================================
@@ -26,6 +26,26 @@ api.interceptors.request.use(
   (error) => Promise.reject(error)
 );
 
+// Refresh en cours, partagé par les requêtes qui reçoivent un 401 en même temps
+let refreshPromise = null;
+
+// Refresh coordonné entre onglets : verrou Web Locks (si disponible), puis relecture du stockage,
+// un autre onglet a pu renouveler les tokens pendant l'attente (le refresh token est à usage unique)
+const refreshTokens = (staleRefreshToken) => {
+  const run = async () => {
+    const currentRefreshToken = localStorage.getItem('refreshToken');
+    if (currentRefreshToken && currentRefreshToken !== staleRefreshToken) {
+      return localStorage.getItem('accessToken');
+    }
+    const response = await axios.post(`${API_BASE_URL}/auth/refresh`, { refreshToken: staleRefreshToken });
+    const { accessToken, refreshToken: newRefreshToken } = response.data.data;
+    localStorage.setItem('accessToken', accessToken);
+    localStorage.setItem('refreshToken', newRefreshToken);
+    return accessToken;
+  };
+  return navigator.locks ? navigator.locks.request('secureauth-token-refresh', run) : run();
+};
+
 // Intercepteur pour gérer les erreurs
 api.interceptors.response.use(
   (response) => response,
@@ -41,11 +61,21 @@ api.interceptors.response.use(
       if (refreshToken && !originalRequest._retry) {
         originalRequest._retry = true;
         try {
-          const response = await axios.post(`${API_BASE_URL}/auth/refresh`, {
-            refreshToken,
-          });
-          const { accessToken } = response.data.data;
-          localStorage.setItem('accessToken', accessToken);
+          const sentToken = originalRequest.headers.Authorization?.replace('Bearer ', '');
+          const storedToken = localStorage.getItem('accessToken');
+          let accessToken;
+          if (storedToken && storedToken !== sentToken) {
+            // Tokens déjà renouvelés (autre requête ou autre onglet) : simple nouvel essai
+            accessToken = storedToken;
+          } else {
+            // Un seul refresh à la fois dans l'onglet
+            if (!refreshPromise) {
+              refreshPromise = refreshTokens(refreshToken).finally(() => {
+                refreshPromise = null;
+              });
+            }
+            accessToken = await refreshPromise;
+          }
           
           // Retry la requête originale
           originalRequest.headers.Authorization = `Bearer ${accessToken}`;